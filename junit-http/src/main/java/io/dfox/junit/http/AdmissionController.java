@@ -0,0 +1,276 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.AdmissionException;
+import io.dfox.junit.http.api.AdmissionStats;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AdmissionController limits the number of runs in progress, both in total and for each grouping,
+ * so that many clients running tests at once cannot overload the system under test. A run which
+ * cannot start right away waits in a bounded queue for up to the configured time, and is 
+ * rejected with an {@link AdmissionException} if the queue is full or the wait is too long.
+ * 
+ * A run waiting on a {@link ForkJoinPool} worker waits through 
+ * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}, so the pool can start another
+ * worker rather than having every worker blocked on admission.
+ */
+final class AdmissionController {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    private final Semaphore running;
+    private final int maxRunning;
+    private final int groupingLimit;
+    private final ConcurrentMap<String, Semaphore> groupings = new ConcurrentHashMap<>();
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Permit is held for the duration of an admitted run, and releases its capacity when it is
+     * closed.
+     */
+    interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * @param configuration The configuration containing the admission limits
+     */
+    AdmissionController(final Configuration configuration) {
+        this.maxRunning = configuration.getAdmissionMaxRunning();
+        this.running = new Semaphore(maxRunning, true);
+        this.groupingLimit = configuration.getAdmissionGroupingLimit();
+        this.queueSize = configuration.getAdmissionQueueSize();
+        this.queueTimeoutNanos = 
+            TimeUnit.MILLISECONDS.toNanos(configuration.getAdmissionQueueTimeoutMillis());
+    }
+
+    /**
+     * Wait until a run of the specified grouping may start.
+     *
+     * @param grouping The grouping of the run
+     * @return The permit, which must be closed when the run finishes
+     * @throws AdmissionException If the run is not admitted
+     */
+    Permit acquire(final String grouping) throws AdmissionException {
+        final Semaphore groupingPermits = getGroupingPermits(grouping);
+        
+        if (tryAcquire(groupingPermits)) {
+            if (running.tryAcquire()) {
+                return admit(groupingPermits, 0L);
+            }
+            release(groupingPermits);
+        }
+
+        if (waiting.incrementAndGet() > queueSize) {
+            waiting.decrementAndGet();
+            throw reject("Too many runs waiting");
+        }
+
+        final long start = System.nanoTime();
+        boolean holdsGrouping = false;
+        try {
+            if (!tryAcquire(groupingPermits, queueTimeoutNanos)) {
+                throw reject("Timed out waiting to run " + grouping);
+            }
+            holdsGrouping = true;
+            
+            final long remaining = queueTimeoutNanos - (System.nanoTime() - start);
+            if (!awaitPermit(running, remaining)) {
+                throw reject("Timed out waiting to run " + grouping);
+            }
+            
+            // The grouping permit is released by the run's permit from now on
+            holdsGrouping = false;
+            return admit(groupingPermits, System.nanoTime() - start);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("Interrupted waiting to run " + grouping);
+        }
+        finally {
+            waiting.decrementAndGet();
+            if (holdsGrouping) {
+                release(groupingPermits);
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot of the statistics of the controller.
+     *
+     * @return The statistics
+     */
+    AdmissionStats getStats() {
+        final long count = admitted.sum();
+        double averageWaitMillis = 0;
+        if (count > 0) {
+            averageWaitMillis = totalWaitNanos.sum() / NANOS_PER_MILLI / count;
+        }
+        return new AdmissionStats(
+            maxRunning - running.availablePermits(),
+            waiting.get(),
+            count,
+            rejected.sum(),
+            averageWaitMillis,
+            maxWaitNanos.get() / NANOS_PER_MILLI
+        );
+    }
+
+    /**
+     * Record an admitted run and create its permit.
+     *
+     * @param groupingPermits The grouping permits the run holds, or null if groupings are not 
+     * limited
+     * @param waitNanos The time the run waited
+     * @return The permit
+     */
+    private Permit admit(final Semaphore groupingPermits, final long waitNanos) {
+        admitted.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+
+        return () -> {
+            running.release();
+            release(groupingPermits);
+        };
+    }
+
+    /**
+     * Record a rejected run.
+     *
+     * @param message The reason the run was rejected
+     * @return The exception to throw
+     */
+    private AdmissionException reject(final String message) {
+        rejected.increment();
+        return new AdmissionException(message);
+    }
+
+    /**
+     * @param grouping The grouping
+     * @return The permits limiting the runs of the grouping, or null if groupings are not limited
+     */
+    private Semaphore getGroupingPermits(final String grouping) {
+        if (groupingLimit == Configuration.UNLIMITED) {
+            return null;
+        }
+        else {
+            return groupings.computeIfAbsent(grouping, g -> new Semaphore(groupingLimit, true));
+        }
+    }
+
+    /**
+     * @param permits The grouping permits, or null if groupings are not limited
+     * @return True if a permit was acquired or none is needed
+     */
+    private static boolean tryAcquire(final Semaphore permits) {
+        return permits == null || permits.tryAcquire();
+    }
+
+    /**
+     * @param permits The grouping permits, or null if groupings are not limited
+     * @param timeoutNanos The longest time to wait for a permit
+     * @return True if a permit was acquired or none is needed
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    private static boolean tryAcquire(final Semaphore permits, final long timeoutNanos)
+        throws InterruptedException {
+
+        return permits == null || awaitPermit(permits, timeoutNanos);
+    }
+
+    /**
+     * Wait for a permit, letting the pool of a {@link ForkJoinPool} worker compensate for the 
+     * blocked worker.
+     *
+     * @param permits The permits to acquire one of
+     * @param timeoutNanos The longest time to wait for a permit
+     * @return True if a permit was acquired
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    private static boolean awaitPermit(final Semaphore permits, final long timeoutNanos)
+        throws InterruptedException {
+        
+        final PermitBlocker blocker = new PermitBlocker(permits, timeoutNanos);
+        ForkJoinPool.managedBlock(blocker);
+        return blocker.acquired;
+    }
+
+    /**
+     * PermitBlocker waits for a permit for up to a limited time.
+     */
+    private static final class PermitBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private final Semaphore permits;
+        private final long timeoutNanos;
+        private boolean done = false;
+        private boolean acquired = false;
+
+        /**
+         * @param permits The permits to acquire one of
+         * @param timeoutNanos The longest time to wait for a permit
+         */
+        PermitBlocker(final Semaphore permits, final long timeoutNanos) {
+            this.permits = permits;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!done) {
+                acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+                done = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!done && permits.tryAcquire()) {
+                acquired = true;
+                done = true;
+            }
+            return done;
+        }
+    }
+
+    /**
+     * @param permits The grouping permits to release one of, or null if groupings are not 
+     * limited
+     */
+    private static void release(final Semaphore permits) {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * AsyncDispatch runs a request handler on an executor thread for a request which has been put
+ * into asynchronous mode, and completes the request exactly once, whether the handler finishes,
+ * fails, or the container times the request out first. A handler which is still running when
+ * the request times out is cancelled by interrupting its thread, so that the test it is running
+ * stops rather than holding the executor thread after its response has been sent. A handler 
+ * which carries on regardless writes to a {@link GuardedResponse}, which drops its writes once 
+ * the request has been completed.
+ */
+class AsyncDispatch implements Runnable, AsyncListener {
+
+    private static final int INTERNAL_ERROR_STATUS = 500;
+    private static final int SERVICE_UNAVAILABLE_STATUS = 503;
+
+    /**
+     * Handler handles a request synchronously on the thread it is called from.
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        /**
+         * @param request The request
+         * @param response The response
+         * @throws ServletException If an unrecoverable error occurs
+         * @throws IOException If the response cannot be written
+         */
+        void handle(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException;
+    }
+
+    private final AsyncContext context;
+    private final Handler handler;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+    private final Object lock = new Object();
+    private Thread thread;
+
+    /**
+     * @param context The context of the asynchronous request
+     * @param handler The handler to run the request with
+     */
+    AsyncDispatch(final AsyncContext context, final Handler handler) {
+        this.context = context;
+        this.handler = handler;
+    }
+
+    @Override
+    public void run() {
+        synchronized (lock) {
+            if (completed.get()) {
+                return;
+            }
+            thread = Thread.currentThread();
+        }
+        
+        final HttpServletResponse response = 
+            new GuardedResponse((HttpServletResponse) context.getResponse(), completed::get);
+        try {
+            handler.handle((HttpServletRequest) context.getRequest(), response);
+        }
+        catch (ServletException | IOException | RuntimeException e) {
+            if (!completed.get() && !response.isCommitted()) {
+                response.setStatus(INTERNAL_ERROR_STATUS);
+            }
+        }
+        finally {
+            synchronized (lock) {
+                thread = null;
+                // An interrupt meant for this handler must not reach the next task on the thread
+                Thread.interrupted();
+            }
+            complete();
+        }
+    }
+    
+    /**
+     * Interrupt the thread running the handler, if it is running.
+     */
+    private void cancel() {
+        synchronized (lock) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reject the request because no executor capacity is available, and complete it.
+     */
+    void reject() {
+        if (completed.compareAndSet(false, true)) {
+            ((HttpServletResponse) context.getResponse()).setStatus(SERVICE_UNAVAILABLE_STATUS);
+            context.complete();
+        }
+    }
+
+    /**
+     * Complete the request if it has not already been completed.
+     */
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            context.complete();
+        }
+    }
+
+    @Override
+    public void onComplete(final AsyncEvent event) {
+        completed.set(true);
+    }
+
+    @Override
+    public void onTimeout(final AsyncEvent event) {
+        if (completed.compareAndSet(false, true)) {
+            cancel();
+            final HttpServletResponse response = (HttpServletResponse) context.getResponse();
+            if (!response.isCommitted()) {
+                response.setStatus(SERVICE_UNAVAILABLE_STATUS);
+            }
+            context.complete();
+        }
+    }
+
+    @Override
+    public void onError(final AsyncEvent event) {
+        complete();
+    }
+
+    @Override
+    public void onStartAsync(final AsyncEvent event) {
+        // Nothing to do; the listener is registered after the request has been started
+    }
+}
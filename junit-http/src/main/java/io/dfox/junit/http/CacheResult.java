@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * CacheResult denotes a test, or a test class, which only reads state that changes rarely, so a 
+ * successful result may be returned again for a time instead of running the test again. An 
+ * annotation on a test method takes precedence over the annotation on its class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface CacheResult { 
+    
+    /**
+     * @return The time in seconds a successful result may be returned from the cache
+     */
+    long maxAgeSeconds();
+}
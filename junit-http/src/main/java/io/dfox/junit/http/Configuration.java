@@ -0,0 +1,593 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.util.Collectors;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
+
+/**
+ * Configuration holds the settings of the JUnit HTTP application. When running in a servlet
+ * container, the settings are read from the servlet init parameters using
+ * {@link #fromParameters(java.util.function.Function)}.
+ */
+public final class Configuration {
+
+    public static final String ASYNC_ENABLED = "async.enabled";
+    public static final String ASYNC_THREADS = "async.threads";
+    public static final String ASYNC_QUEUE_SIZE = "async.queueSize";
+    public static final String ASYNC_TIMEOUT_MILLIS = "async.timeoutMillis";
+    public static final String PARALLELISM = "parallelism";
+    public static final String DATA_MAX_AGE_SECONDS = "data.maxAgeSeconds";
+    public static final String TIMEOUT_MAX_MILLIS = "timeout.maxMillis";
+    public static final String ADMISSION_MAX_RUNNING = "admission.maxRunning";
+    public static final String ADMISSION_GROUPING_LIMIT = "admission.groupingLimit";
+    public static final String ADMISSION_QUEUE_SIZE = "admission.queueSize";
+    public static final String ADMISSION_QUEUE_TIMEOUT_MILLIS = "admission.queueTimeoutMillis";
+    public static final String ADMISSION_RETRY_AFTER_SECONDS = "admission.retryAfterSeconds";
+    public static final String WARMUP_PACKAGES = "warmup.packages";
+    public static final String RUNNERS_MAX_SIZE = "runners.maxSize";
+    public static final String RUNNERS_MAX_IDLE_MILLIS = "runners.maxIdleMillis";
+    public static final String RUNNERS_CACHE_STATEMENTS = "runners.cacheStatements";
+    public static final String RESULTS_MAX_SIZE = "results.maxSize";
+    public static final String TIMINGS_FILE = "timings.file";
+    public static final String COORDINATOR_PEERS = "coordinator.peers";
+    public static final String COORDINATOR_RETRIES = "coordinator.retries";
+
+    /**
+     * The value of a limit which means there is no limit.
+     */
+    public static final int UNLIMITED = 0;
+
+    private static final int DEFAULT_ASYNC_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_ASYNC_QUEUE_SIZE = 64;
+    private static final long DEFAULT_ASYNC_TIMEOUT_MILLIS = 300000L;
+    private static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final long DEFAULT_DATA_MAX_AGE_SECONDS = 86400L;
+    private static final long DEFAULT_TIMEOUT_MAX_MILLIS = 300000L;
+    private static final int DEFAULT_ADMISSION_MAX_RUNNING = 
+        Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_ADMISSION_QUEUE_SIZE = 64;
+    private static final long DEFAULT_ADMISSION_QUEUE_TIMEOUT_MILLIS = 30000L;
+    private static final int DEFAULT_ADMISSION_RETRY_AFTER_SECONDS = 5;
+    private static final int DEFAULT_RESULTS_MAX_SIZE = 256;
+    private static final int DEFAULT_COORDINATOR_RETRIES = 1;
+    private static final String LIST_SEPARATOR = ",";
+
+    private final boolean asyncEnabled;
+    private final int asyncThreads;
+    private final int asyncQueueSize;
+    private final long asyncTimeoutMillis;
+    private final int parallelism;
+    private final long dataMaxAgeSeconds;
+    private final long timeoutMaxMillis;
+    private final int admissionMaxRunning;
+    private final int admissionGroupingLimit;
+    private final int admissionQueueSize;
+    private final long admissionQueueTimeoutMillis;
+    private final int admissionRetryAfterSeconds;
+    private final ImmutableList<String> warmupPackages;
+    private final int runnersMaxSize;
+    private final long runnersMaxIdleMillis;
+    private final boolean runnersCacheStatements;
+    private final int resultsMaxSize;
+    private final Optional<String> timingsFile;
+    private final ImmutableList<String> coordinatorPeers;
+    private final int coordinatorRetries;
+
+    /**
+     * A mutable builder for immutable Configurations.
+     */
+    public static class Builder {
+
+        private boolean asyncEnabled = false;
+        private int asyncThreads = DEFAULT_ASYNC_THREADS;
+        private int asyncQueueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+        private long asyncTimeoutMillis = DEFAULT_ASYNC_TIMEOUT_MILLIS;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private long dataMaxAgeSeconds = DEFAULT_DATA_MAX_AGE_SECONDS;
+        private long timeoutMaxMillis = DEFAULT_TIMEOUT_MAX_MILLIS;
+        private int admissionMaxRunning = DEFAULT_ADMISSION_MAX_RUNNING;
+        private int admissionGroupingLimit = UNLIMITED;
+        private int admissionQueueSize = DEFAULT_ADMISSION_QUEUE_SIZE;
+        private long admissionQueueTimeoutMillis = DEFAULT_ADMISSION_QUEUE_TIMEOUT_MILLIS;
+        private int admissionRetryAfterSeconds = DEFAULT_ADMISSION_RETRY_AFTER_SECONDS;
+        private ImmutableList<String> warmupPackages = ImmutableList.of();
+        private int runnersMaxSize = UNLIMITED;
+        private long runnersMaxIdleMillis = UNLIMITED;
+        private boolean runnersCacheStatements = false;
+        private int resultsMaxSize = DEFAULT_RESULTS_MAX_SIZE;
+        private Optional<String> timingsFile = Optional.empty();
+        private ImmutableList<String> coordinatorPeers = ImmutableList.of();
+        private int coordinatorRetries = DEFAULT_COORDINATOR_RETRIES;
+
+        /**
+         * Create the Configuration from the state of the Builder.
+         *
+         * @return The Configuration
+         */
+        public Configuration build() {
+            return new Configuration(this);
+        }
+
+        /**
+         * @param enabled Whether tests and fixtures are run asynchronously on a dedicated
+         * executor instead of the container request thread
+         * @return This Builder
+         */
+        public Builder asyncEnabled(final boolean enabled) {
+            this.asyncEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * @param threads The number of threads in the async executor
+         * @return This Builder
+         */
+        public Builder asyncThreads(final int threads) {
+            Validate.isTrue(threads > 0, "asyncThreads must be positive");
+            this.asyncThreads = threads;
+            return this;
+        }
+
+        /**
+         * @param queueSize The number of requests which may wait for an async executor thread
+         * before new requests are rejected
+         * @return This Builder
+         */
+        public Builder asyncQueueSize(final int queueSize) {
+            Validate.isTrue(queueSize > 0, "asyncQueueSize must be positive");
+            this.asyncQueueSize = queueSize;
+            return this;
+        }
+
+        /**
+         * @param timeoutMillis The time an async request may take before the container times it
+         * out
+         * @return This Builder
+         */
+        public Builder asyncTimeoutMillis(final long timeoutMillis) {
+            Validate.isTrue(timeoutMillis > 0, "asyncTimeoutMillis must be positive");
+            this.asyncTimeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param threads The maximum number of tests and fixtures the application runs at once
+         * when a single request asks for several to be run in parallel
+         * @return This Builder
+         */
+        public Builder parallelism(final int threads) {
+            Validate.isTrue(threads > 0, "parallelism must be positive");
+            this.parallelism = threads;
+            return this;
+        }
+
+        /**
+         * @param maxAgeSeconds The time clients may cache test data documents for before 
+         * revalidating them
+         * @return This Builder
+         */
+        public Builder dataMaxAgeSeconds(final long maxAgeSeconds) {
+            Validate.isTrue(maxAgeSeconds >= 0, "dataMaxAgeSeconds cannot be negative");
+            this.dataMaxAgeSeconds = maxAgeSeconds;
+            return this;
+        }
+
+        /**
+         * @param maxMillis The longest time a request may ask for its tests or fixtures to run, 
+         * which is also the time limit of requests which do not ask for one, or 
+         * {@link #UNLIMITED}
+         * @return This Builder
+         */
+        public Builder timeoutMaxMillis(final long maxMillis) {
+            Validate.isTrue(maxMillis >= 0, "timeoutMaxMillis cannot be negative");
+            this.timeoutMaxMillis = maxMillis;
+            return this;
+        }
+
+        /**
+         * @param maxRunning The number of test and fixture runs which may be in progress at once
+         * across all groupings
+         * @return This Builder
+         */
+        public Builder admissionMaxRunning(final int maxRunning) {
+            Validate.isTrue(maxRunning > 0, "admissionMaxRunning must be positive");
+            this.admissionMaxRunning = maxRunning;
+            return this;
+        }
+
+        /**
+         * @param limit The number of runs of a single grouping which may be in progress at once,
+         * or {@link #UNLIMITED}
+         * @return This Builder
+         */
+        public Builder admissionGroupingLimit(final int limit) {
+            Validate.isTrue(limit >= 0, "admissionGroupingLimit cannot be negative");
+            this.admissionGroupingLimit = limit;
+            return this;
+        }
+
+        /**
+         * @param queueSize The number of runs which may wait to start before new runs are 
+         * rejected
+         * @return This Builder
+         */
+        public Builder admissionQueueSize(final int queueSize) {
+            Validate.isTrue(queueSize >= 0, "admissionQueueSize cannot be negative");
+            this.admissionQueueSize = queueSize;
+            return this;
+        }
+
+        /**
+         * @param timeoutMillis The time a run may wait to start before it is rejected
+         * @return This Builder
+         */
+        public Builder admissionQueueTimeoutMillis(final long timeoutMillis) {
+            Validate.isTrue(timeoutMillis >= 0, "admissionQueueTimeoutMillis cannot be negative");
+            this.admissionQueueTimeoutMillis = timeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param seconds The time rejected clients are asked to wait before they retry
+         * @return This Builder
+         */
+        public Builder admissionRetryAfterSeconds(final int seconds) {
+            Validate.isTrue(seconds >= 0, "admissionRetryAfterSeconds cannot be negative");
+            this.admissionRetryAfterSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * @param packages The packages, including their subpackages, whose test classes have 
+         * their runners created when the application starts instead of on first use
+         * @return This Builder
+         */
+        public Builder warmupPackages(final List<String> packages) {
+            Validate.noNullElements(packages, "warmupPackages cannot contain null");
+            this.warmupPackages = ImmutableList.copyOf(packages);
+            return this;
+        }
+
+        /**
+         * @param maxSize The maximum number of test classes whose runners are kept, or 
+         * {@link #UNLIMITED}
+         * @return This Builder
+         */
+        public Builder runnersMaxSize(final int maxSize) {
+            Validate.isTrue(maxSize >= 0, "runnersMaxSize cannot be negative");
+            this.runnersMaxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * @param maxIdleMillis The time after which a runner which has not been used is evicted, 
+         * or {@link #UNLIMITED}
+         * @return This Builder
+         */
+        public Builder runnersMaxIdleMillis(final long maxIdleMillis) {
+            Validate.isTrue(maxIdleMillis >= 0, "runnersMaxIdleMillis cannot be negative");
+            this.runnersMaxIdleMillis = maxIdleMillis;
+            return this;
+        }
+
+        /**
+         * @param cache Whether the statement which runs each test is built once and reused, for
+         * tests without rules, expected exceptions or timeouts
+         * @return This Builder
+         */
+        public Builder runnersCacheStatements(final boolean cache) {
+            this.runnersCacheStatements = cache;
+            return this;
+        }
+
+        /**
+         * @param maxSize The number of test results which may be cached. Zero disables the cache.
+         * @return This Builder
+         */
+        public Builder resultsMaxSize(final int maxSize) {
+            Validate.isTrue(maxSize >= 0, "resultsMaxSize cannot be negative");
+            this.resultsMaxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * @param file The file the time each test takes is saved to when the application stops,
+         * and loaded from when it starts
+         * @return This Builder
+         */
+        public Builder timingsFile(final String file) {
+            Validate.notEmpty(file, "timingsFile cannot be empty");
+            this.timingsFile = Optional.of(file);
+            return this;
+        }
+
+        /**
+         * @param peers The base URLs of the instances of the application which coordinated runs 
+         * are split between. Without peers, the application is not a coordinator.
+         * @return This Builder
+         */
+        public Builder coordinatorPeers(final List<String> peers) {
+            Validate.noNullElements(peers, "coordinatorPeers cannot contain null");
+            this.coordinatorPeers = ImmutableList.copyOf(peers);
+            return this;
+        }
+
+        /**
+         * @param retries The number of times a shard of a coordinated run which failed is sent 
+         * to another peer
+         * @return This Builder
+         */
+        public Builder coordinatorRetries(final int retries) {
+            Validate.isTrue(retries >= 0, "coordinatorRetries cannot be negative");
+            this.coordinatorRetries = retries;
+            return this;
+        }
+    }
+
+    /**
+     * Create a new Builder.
+     *
+     * @return The Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a Configuration with the default settings.
+     *
+     * @return The default Configuration
+     */
+    public static Configuration defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Create a Configuration from named parameters, such as servlet init parameters. Parameters
+     * which are missing or blank keep their default value.
+     *
+     * @param parameters The function used to look up a parameter by name. It should return null
+     * if the parameter is not set.
+     * @return The Configuration
+     */
+    public static Configuration fromParameters(final Function<String, String> parameters) {
+        final Builder builder = builder();
+
+        final String asyncEnabled = parameter(parameters, ASYNC_ENABLED);
+        if (asyncEnabled != null) {
+            builder.asyncEnabled(Boolean.parseBoolean(asyncEnabled));
+        }
+        final String asyncThreads = parameter(parameters, ASYNC_THREADS);
+        if (asyncThreads != null) {
+            builder.asyncThreads(Integer.parseInt(asyncThreads));
+        }
+        final String asyncQueueSize = parameter(parameters, ASYNC_QUEUE_SIZE);
+        if (asyncQueueSize != null) {
+            builder.asyncQueueSize(Integer.parseInt(asyncQueueSize));
+        }
+        final String asyncTimeoutMillis = parameter(parameters, ASYNC_TIMEOUT_MILLIS);
+        if (asyncTimeoutMillis != null) {
+            builder.asyncTimeoutMillis(Long.parseLong(asyncTimeoutMillis));
+        }
+        final String parallelism = parameter(parameters, PARALLELISM);
+        if (parallelism != null) {
+            builder.parallelism(Integer.parseInt(parallelism));
+        }
+        final String dataMaxAgeSeconds = parameter(parameters, DATA_MAX_AGE_SECONDS);
+        if (dataMaxAgeSeconds != null) {
+            builder.dataMaxAgeSeconds(Long.parseLong(dataMaxAgeSeconds));
+        }
+        final String timeoutMaxMillis = parameter(parameters, TIMEOUT_MAX_MILLIS);
+        if (timeoutMaxMillis != null) {
+            builder.timeoutMaxMillis(Long.parseLong(timeoutMaxMillis));
+        }
+        final String admissionMaxRunning = parameter(parameters, ADMISSION_MAX_RUNNING);
+        if (admissionMaxRunning != null) {
+            builder.admissionMaxRunning(Integer.parseInt(admissionMaxRunning));
+        }
+        final String admissionGroupingLimit = parameter(parameters, ADMISSION_GROUPING_LIMIT);
+        if (admissionGroupingLimit != null) {
+            builder.admissionGroupingLimit(Integer.parseInt(admissionGroupingLimit));
+        }
+        final String admissionQueueSize = parameter(parameters, ADMISSION_QUEUE_SIZE);
+        if (admissionQueueSize != null) {
+            builder.admissionQueueSize(Integer.parseInt(admissionQueueSize));
+        }
+        final String admissionQueueTimeoutMillis = 
+            parameter(parameters, ADMISSION_QUEUE_TIMEOUT_MILLIS);
+        if (admissionQueueTimeoutMillis != null) {
+            builder.admissionQueueTimeoutMillis(Long.parseLong(admissionQueueTimeoutMillis));
+        }
+        final String admissionRetryAfterSeconds = 
+            parameter(parameters, ADMISSION_RETRY_AFTER_SECONDS);
+        if (admissionRetryAfterSeconds != null) {
+            builder.admissionRetryAfterSeconds(Integer.parseInt(admissionRetryAfterSeconds));
+        }
+        final String warmupPackages = parameter(parameters, WARMUP_PACKAGES);
+        if (warmupPackages != null) {
+            builder.warmupPackages(splitList(warmupPackages));
+        }
+        final String runnersMaxSize = parameter(parameters, RUNNERS_MAX_SIZE);
+        if (runnersMaxSize != null) {
+            builder.runnersMaxSize(Integer.parseInt(runnersMaxSize));
+        }
+        final String runnersMaxIdleMillis = parameter(parameters, RUNNERS_MAX_IDLE_MILLIS);
+        if (runnersMaxIdleMillis != null) {
+            builder.runnersMaxIdleMillis(Long.parseLong(runnersMaxIdleMillis));
+        }
+        final String runnersCacheStatements = parameter(parameters, RUNNERS_CACHE_STATEMENTS);
+        if (runnersCacheStatements != null) {
+            builder.runnersCacheStatements(Boolean.parseBoolean(runnersCacheStatements));
+        }
+        final String resultsMaxSize = parameter(parameters, RESULTS_MAX_SIZE);
+        if (resultsMaxSize != null) {
+            builder.resultsMaxSize(Integer.parseInt(resultsMaxSize));
+        }
+        final String timingsFile = parameter(parameters, TIMINGS_FILE);
+        if (timingsFile != null) {
+            builder.timingsFile(timingsFile);
+        }
+        final String coordinatorPeers = parameter(parameters, COORDINATOR_PEERS);
+        if (coordinatorPeers != null) {
+            builder.coordinatorPeers(splitList(coordinatorPeers));
+        }
+        final String coordinatorRetries = parameter(parameters, COORDINATOR_RETRIES);
+        if (coordinatorRetries != null) {
+            builder.coordinatorRetries(Integer.parseInt(coordinatorRetries));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Split a comma separated list parameter, dropping blank elements.
+     *
+     * @param value The value of the parameter
+     * @return The trimmed elements of the list
+     */
+    private static ImmutableList<String> splitList(final String value) {
+        return Arrays.stream(value.split(LIST_SEPARATOR))
+            .map(String::trim)
+            .filter(element -> !element.isEmpty())
+            .collect(Collectors.toImmutableList());
+    }
+
+    /**
+     * Look up a parameter, treating blank values as missing.
+     *
+     * @param parameters The function used to look up the parameter
+     * @param name The name of the parameter
+     * @return The trimmed value of the parameter, or null if it is not set
+     */
+    private static String parameter(final Function<String, String> parameters, final String name) {
+        return StringUtils.stripToNull(parameters.apply(name));
+    }
+
+    /**
+     * Create the Configuration from the state of the Builder.
+     *
+     * @param builder The Builder to copy the state from
+     */
+    private Configuration(final Builder builder) {
+        asyncEnabled = builder.asyncEnabled;
+        asyncThreads = builder.asyncThreads;
+        asyncQueueSize = builder.asyncQueueSize;
+        asyncTimeoutMillis = builder.asyncTimeoutMillis;
+        parallelism = builder.parallelism;
+        dataMaxAgeSeconds = builder.dataMaxAgeSeconds;
+        timeoutMaxMillis = builder.timeoutMaxMillis;
+        admissionMaxRunning = builder.admissionMaxRunning;
+        admissionGroupingLimit = builder.admissionGroupingLimit;
+        admissionQueueSize = builder.admissionQueueSize;
+        admissionQueueTimeoutMillis = builder.admissionQueueTimeoutMillis;
+        admissionRetryAfterSeconds = builder.admissionRetryAfterSeconds;
+        warmupPackages = builder.warmupPackages;
+        runnersMaxSize = builder.runnersMaxSize;
+        runnersMaxIdleMillis = builder.runnersMaxIdleMillis;
+        runnersCacheStatements = builder.runnersCacheStatements;
+        resultsMaxSize = builder.resultsMaxSize;
+        timingsFile = builder.timingsFile;
+        coordinatorPeers = builder.coordinatorPeers;
+        coordinatorRetries = builder.coordinatorRetries;
+    }
+
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    public long getAsyncTimeoutMillis() {
+        return asyncTimeoutMillis;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getDataMaxAgeSeconds() {
+        return dataMaxAgeSeconds;
+    }
+
+    public long getTimeoutMaxMillis() {
+        return timeoutMaxMillis;
+    }
+
+    public int getAdmissionMaxRunning() {
+        return admissionMaxRunning;
+    }
+
+    public int getAdmissionGroupingLimit() {
+        return admissionGroupingLimit;
+    }
+
+    public int getAdmissionQueueSize() {
+        return admissionQueueSize;
+    }
+
+    public long getAdmissionQueueTimeoutMillis() {
+        return admissionQueueTimeoutMillis;
+    }
+
+    public int getAdmissionRetryAfterSeconds() {
+        return admissionRetryAfterSeconds;
+    }
+
+    public ImmutableList<String> getWarmupPackages() {
+        return warmupPackages;
+    }
+
+    public int getRunnersMaxSize() {
+        return runnersMaxSize;
+    }
+
+    public long getRunnersMaxIdleMillis() {
+        return runnersMaxIdleMillis;
+    }
+
+    public boolean isRunnersCacheStatements() {
+        return runnersCacheStatements;
+    }
+
+    public int getResultsMaxSize() {
+        return resultsMaxSize;
+    }
+
+    public Optional<String> getTimingsFile() {
+        return timingsFile;
+    }
+
+    public ImmutableList<String> getCoordinatorPeers() {
+        return coordinatorPeers;
+    }
+
+    public int getCoordinatorRetries() {
+        return coordinatorRetries;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.CoordinatedSummary;
+import io.dfox.junit.http.api.Error;
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.MethodNotFoundException;
+import io.dfox.junit.http.api.NodeRun;
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Summary;
+import static io.dfox.junit.http.util.TestUtils.JSON_MAPPER;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Coordinator splits runs of a class or package between peer instances of the application. The 
+ * run is split into one shard per peer with the "shard" parameter, each shard is sent to its 
+ * peer over HTTP, and the shards run concurrently. The summaries the peers return are merged, in
+ * the order of the shards, along with the peer, number of attempts and time of each shard.
+ * 
+ * A shard whose peer cannot be reached, or responds with an error, is sent to the next peer, up 
+ * to the configured number of retries, as long as the run has time left; each attempt is given
+ * only the time left of the run. A shard which no peer could run is reported as a failure. A 
+ * peer which cannot find the tests may just have been configured with the wrong base URL, so it 
+ * counts as a failed attempt; the tests are only reported as not found when every attempt of 
+ * every shard was answered that way.
+ */
+final class Coordinator {
+
+    private static final int SUCCESS_STATUS = 200;
+    private static final int NOT_FOUND_STATUS = 404;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10000;
+    private static final long READ_TIMEOUT_GRACE_MILLIS = 30000L;
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String SHARD_SEPARATOR = "/";
+    private static final String SHARD_FAILURE = "shard ";
+
+    private final ImmutableList<String> peers;
+    private final int retries;
+    private final ExecutorService executor;
+
+    /**
+     * @param configuration The configuration containing the peers and retries
+     */
+    Coordinator(final Configuration configuration) {
+        this.peers = configuration.getCoordinatorPeers()
+            .stream()
+            .map(peer -> StringUtils.removeEnd(peer, "/"))
+            .collect(io.dfox.junit.http.util.Collectors.toImmutableList());
+        this.retries = configuration.getCoordinatorRetries();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "junit-http-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run the tests at a path on the peers and merge their summaries.
+     *
+     * @param path The path to the class or package
+     * @param options The options of the run. The shard of its selector is replaced by the shard
+     * of each peer.
+     * @return The merged summary
+     * @throws MethodNotFoundException If no peer could find the tests
+     */
+    CoordinatedSummary run(final Path path, final RunOptions options) 
+        throws MethodNotFoundException {
+        
+        final Deadline deadline = Deadline.start(options);
+        final List<CompletableFuture<Shard>> shards = new ArrayList<>(peers.size());
+        for (int index = 1; index <= peers.size(); index++) {
+            final int shardIndex = index;
+            shards.add(CompletableFuture.supplyAsync(
+                () -> runShard(path, options, deadline, shardIndex), executor));
+        }
+
+        final Summary.Builder summary = Summary.builder();
+        final ImmutableList.Builder<NodeRun> nodes = ImmutableList.builder();
+        boolean notFound = true;
+        for (CompletableFuture<Shard> future : shards) {
+            final Shard shard = join(future);
+            shard.summary.getResults().forEach(summary::addResult);
+            nodes.add(shard.node);
+            notFound = notFound && shard.notFound;
+        }
+        
+        if (notFound) {
+            throw new MethodNotFoundException(path);
+        }
+        return new CoordinatedSummary(summary.build(), nodes.build());
+    }
+
+    /**
+     * Stop the threads which send shards to the peers.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a shard on its peer, retrying it on the following peers if it fails and the run has 
+     * time left.
+     *
+     * @param path The path to the class or package
+     * @param options The options of the run
+     * @param deadline The deadline of the run
+     * @param index The number of the shard, from 1
+     * @return The summary and node of the shard
+     */
+    private Shard runShard(final Path path, final RunOptions options, final Deadline deadline, 
+                           final int index) {
+        
+        final String shard = index + SHARD_SEPARATOR + peers.size();
+        final long start = System.nanoTime();
+        
+        IOException lastError = null;
+        boolean notFound = true;
+        String peer = peers.get(index - 1);
+        int attempts = 0;
+        while (attempts <= retries && (attempts == 0 || !deadline.isExpired())) {
+            peer = peers.get((index - 1 + attempts) % peers.size());
+            attempts++;
+            final RunOptions remaining = deadline.remaining(options);
+            try {
+                final Summary summary = post(peer, path, 
+                                             createQuery(remaining, index, peers.size()), 
+                                             remaining);
+                return new Shard(summary, new NodeRun(shard, peer, attempts, elapsedMillis(start), 
+                                                      Optional.empty()), false);
+            }
+            catch (NotFoundException e) {
+                lastError = e;
+            }
+            catch (IOException e) {
+                lastError = e;
+                notFound = false;
+            }
+        }
+        
+        final String message = lastError.getClass().getName() + ": " + lastError.getMessage();
+        final Summary.Builder summary = Summary.builder();
+        summary.addResult(new Failure(path.toString(), SHARD_FAILURE + shard, 
+                                      new Error(lastError.getClass().getName(), 
+                                                Optional.ofNullable(lastError.getMessage())), 
+                                      ImmutableList.of()));
+        return new Shard(summary.build(), new NodeRun(shard, peer, attempts, elapsedMillis(start), 
+                                                      Optional.of(message)), notFound);
+    }
+
+    /**
+     * Send a shard to a peer.
+     *
+     * @param peer The base URL of the peer
+     * @param path The path to the class or package
+     * @param query The query string of the shard
+     * @param options The options of the attempt, used to limit the time the peer may take
+     * @return The summary returned by the peer
+     * @throws IOException If the peer could not be reached or did not return a summary, or a 
+     * NotFoundException if it could not find the tests
+     */
+    private static Summary post(final String peer, final Path path, final String query, 
+                                final RunOptions options) throws IOException {
+        
+        final URL url = new URL(peer + "/" + JUnitHttpServlet.TESTS_PREFIX + "/" + path + "?" 
+                                + query);
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Accept", JSON_CONTENT_TYPE);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            if (options.getTimeoutMillis() != RunOptions.NO_TIMEOUT) {
+                connection.setReadTimeout((int) Math.min(Integer.MAX_VALUE, 
+                    options.getTimeoutMillis() + READ_TIMEOUT_GRACE_MILLIS));
+            }
+            
+            final int status = connection.getResponseCode();
+            if (status == NOT_FOUND_STATUS) {
+                throw new NotFoundException("Peer " + peer + " could not find " + path);
+            }
+            else if (status != SUCCESS_STATUS) {
+                throw new IOException("Peer " + peer + " responded with status " + status);
+            }
+            
+            try (InputStream stream = connection.getInputStream()) {
+                return JSON_MAPPER.readValue(stream, Summary.class);
+            }
+        }
+        finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Create the query string which runs a shard with the options of the run.
+     *
+     * @param options The options of the run
+     * @param index The number of the shard, from 1
+     * @param count The number of shards
+     * @return The query string
+     */
+    private static String createQuery(final RunOptions options, final int index, 
+                                      final int count) {
+        
+        final List<String> parameters = new ArrayList<>();
+        addParameter(parameters, JUnitHttpServlet.SHARD_PARAMETER, 
+                     index + SHARD_SEPARATOR + count);
+        if (options.getTimeoutMillis() != RunOptions.NO_TIMEOUT) {
+            addParameter(parameters, JUnitHttpServlet.TIMEOUT_PARAMETER, 
+                         String.valueOf(options.getTimeoutMillis()));
+        }
+        if (options.getTestTimeoutMillis() != RunOptions.NO_TIMEOUT) {
+            addParameter(parameters, JUnitHttpServlet.TEST_TIMEOUT_PARAMETER, 
+                         String.valueOf(options.getTestTimeoutMillis()));
+        }
+        if (options.isParallelTests()) {
+            addParameter(parameters, JUnitHttpServlet.PARALLEL_TESTS_PARAMETER, 
+                         String.valueOf(true));
+        }
+        if (options.isFailFast()) {
+            addParameter(parameters, JUnitHttpServlet.FAIL_FAST_PARAMETER, String.valueOf(true));
+        }
+        if (options.getMaxAgeSeconds() != RunOptions.NO_MAX_AGE) {
+            addParameter(parameters, JUnitHttpServlet.MAX_AGE_PARAMETER, 
+                         String.valueOf(options.getMaxAgeSeconds()));
+        }
+        if (!options.getSelector().getCategories().isEmpty()) {
+            addParameter(parameters, JUnitHttpServlet.CATEGORY_PARAMETER, 
+                         String.join(",", options.getSelector().getCategories()));
+        }
+        if (options.getSelector().getNameGlob().isPresent()) {
+            addParameter(parameters, JUnitHttpServlet.NAME_PARAMETER, 
+                         options.getSelector().getNameGlob().get());
+        }
+        return parameters.stream().collect(Collectors.joining("&"));
+    }
+
+    /**
+     * Add an encoded query parameter.
+     *
+     * @param parameters The parameters to add to
+     * @param name The name of the parameter
+     * @param value The value of the parameter
+     */
+    private static void addParameter(final List<String> parameters, final String name, 
+                                     final String value) {
+        try {
+            parameters.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8.name()));
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param start The value of {@link System#nanoTime()} when the shard started
+     * @return The time since the shard started
+     */
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Wait for a shard, rethrowing the exception of a shard which stopped the run.
+     *
+     * @param shard The shard to wait for
+     * @return The shard
+     */
+    private static Shard join(final CompletableFuture<Shard> shard) {
+        try {
+            return shard.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            else if (e.getCause() instanceof java.lang.Error) {
+                throw (java.lang.Error) e.getCause();
+            }
+            else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Shard is the summary of a shard and the node which ran it.
+     */
+    private static final class Shard {
+
+        private final Summary summary;
+        private final NodeRun node;
+        private final boolean notFound;
+
+        /**
+         * @param summary The summary returned by the peer
+         * @param node The node which ran the shard
+         * @param notFound True if every peer the shard was sent to could not find the tests
+         */
+        Shard(final Summary summary, final NodeRun node, final boolean notFound) {
+            this.summary = summary;
+            this.node = node;
+            this.notFound = notFound;
+        }
+    }
+
+    /**
+     * NotFoundException is thrown when a peer responds that it could not find the tests of a 
+     * shard.
+     */
+    private static final class NotFoundException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param message The message of the exception
+         */
+        NotFoundException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.util.ContentEncoding;
+import io.dfox.junit.http.util.WireFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.commons.lang.Validate;
+
+/**
+ * DataDocument is a test data document which is serialized once per format and encoding so it
+ * can be served repeatedly without being parsed or serialized again. Test data does not change
+ * while the application is deployed, so each representation is computed at most once.
+ * 
+ * Each representation has an entity tag derived from a hash of the document's content, which is
+ * computed once when the document is created, so clients can revalidate cached copies cheaply.
+ */
+public class DataDocument {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final String path;
+    private final JsonNode data;
+    private final String contentHash;
+    private final Map<WireFormat, Map<ContentEncoding, byte[]>> representations =
+        new EnumMap<>(WireFormat.class);
+
+    /**
+     * @param path The path of the document, relative to the test data directory
+     * @param data The parsed document. It must not be modified after it is passed in.
+     */
+    public DataDocument(final String path, final JsonNode data) {
+        Validate.notEmpty(path, "path cannot be empty");
+        Validate.notNull(data, "data cannot be null");
+
+        this.path = path;
+        this.data = data;
+        
+        final byte[] json = serialize(WireFormat.JSON);
+        this.contentHash = hash(json);
+        getRepresentations(WireFormat.JSON).put(ContentEncoding.IDENTITY, json);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the document serialized in the specified format and encoded with the specified
+     * encoding. The bytes are computed the first time they are requested and kept for later
+     * requests.
+     *
+     * @param format The format to serialize the document in
+     * @param encoding The encoding of the bytes
+     * @return The encoded bytes. They must not be modified.
+     */
+    public synchronized byte[] getBytes(final WireFormat format, final ContentEncoding encoding) {
+        final Map<ContentEncoding, byte[]> encoded = getRepresentations(format);
+        final byte[] bytes = encoded.computeIfAbsent(ContentEncoding.IDENTITY, e -> serialize(format));
+        return encoded.computeIfAbsent(encoding, e -> e.encode(bytes));
+    }
+
+    /**
+     * Get the entity tag of the document serialized in the specified format and encoded with the
+     * specified encoding. The tag is the same for every request, and changes only when the
+     * content of the document does.
+     *
+     * @param format The format of the representation
+     * @param encoding The encoding of the representation
+     * @return The quoted entity tag
+     */
+    public String getETag(final WireFormat format, final ContentEncoding encoding) {
+        return '"' + contentHash + '-' + format.name().toLowerCase(Locale.ROOT) + '-' 
+               + encoding.getToken() + '"';
+    }
+
+    /**
+     * Get the representations of the document in the specified format, keyed by encoding.
+     *
+     * @param format The format of the representations
+     * @return The mutable map of representations
+     */
+    private Map<ContentEncoding, byte[]> getRepresentations(final WireFormat format) {
+        return representations.computeIfAbsent(format, f -> new EnumMap<>(ContentEncoding.class));
+    }
+
+    /**
+     * Hash the content of the document.
+     *
+     * @param bytes The serialized document
+     * @return The hash, encoded so that it can be used in an entity tag
+     */
+    private static String hash(final byte[] bytes) {
+        try {
+            final byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Serialize the document in the specified format.
+     *
+     * @param format The format to serialize the document in
+     * @return The serialized document
+     */
+    private byte[] serialize(final WireFormat format) {
+        try {
+            return format.getMapper().writeValueAsBytes(data);
+        }
+        catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
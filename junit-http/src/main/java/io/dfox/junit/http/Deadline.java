@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.internal.runners.statements.FailOnTimeout;
+import org.junit.runners.model.Statement;
+
+/**
+ * Deadline tracks the time left in a run started with {@link RunOptions}, and limits each test
+ * or fixture of the run to the smaller of the time left and the per-test timeout. A statement
+ * which runs past its limit is interrupted and fails with a
+ * {@link org.junit.runners.model.TestTimedOutException}.
+ */
+final class Deadline {
+
+    private static final long MIN_TIMEOUT_MILLIS = 1L;
+
+    private final long testTimeoutMillis;
+    private final long expiresAtNanos;
+    private final boolean limited;
+
+    /**
+     * @param testTimeoutMillis The time each statement may take, or 
+     * {@link RunOptions#NO_TIMEOUT}
+     * @param expiresAtNanos The value of {@link System#nanoTime()} at which the run expires
+     * @param limited Whether the run as a whole has a time limit
+     */
+    private Deadline(final long testTimeoutMillis, final long expiresAtNanos, 
+                     final boolean limited) {
+        this.testTimeoutMillis = testTimeoutMillis;
+        this.expiresAtNanos = expiresAtNanos;
+        this.limited = limited;
+    }
+
+    /**
+     * Start the clock for a run.
+     *
+     * @param options The options of the run
+     * @return The deadline of the run
+     */
+    static Deadline start(final RunOptions options) {
+        final long timeout = options.getTimeoutMillis();
+        return new Deadline(options.getTestTimeoutMillis(), 
+                            System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout),
+                            timeout != RunOptions.NO_TIMEOUT);
+    }
+
+    /**
+     * @return True if the run has a time limit and it has passed
+     */
+    boolean isExpired() {
+        return limited && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * Create the options of a run which starts now and must finish by this deadline.
+     *
+     * @param options The options of the run this deadline was started for
+     * @return The options, with the whole run limited to the time left
+     */
+    RunOptions remaining(final RunOptions options) {
+        if (limited) {
+            return options.toBuilder().timeoutMillis(remainingMillis()).build();
+        }
+        else {
+            return options;
+        }
+    }
+
+    /**
+     * @return The time left before the deadline, but no less than the shortest timeout
+     */
+    private long remainingMillis() {
+        return Math.max(MIN_TIMEOUT_MILLIS, 
+                        TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * Limit the time a statement may take. The statement is run on a separate thread, which is
+     * interrupted if the statement is still running when the time is up, or if the thread 
+     * waiting for it is interrupted.
+     *
+     * @param statement The statement to limit
+     * @return The limited statement, or the statement itself if there is no limit
+     */
+    Statement limit(final Statement statement) {
+        long timeout = testTimeoutMillis;
+        if (limited) {
+            final long remaining = remainingMillis();
+            if (timeout == RunOptions.NO_TIMEOUT || remaining < timeout) {
+                timeout = remaining;
+            }
+        }
+
+        if (timeout == RunOptions.NO_TIMEOUT) {
+            return statement;
+        }
+        else {
+            final AtomicReference<Thread> running = new AtomicReference<>();
+            final Statement timed = FailOnTimeout.builder()
+                .withTimeout(timeout, TimeUnit.MILLISECONDS)
+                .build(new Statement() {
+                    @Override
+                    public void evaluate() throws Throwable {
+                        running.set(Thread.currentThread());
+                        try {
+                            statement.evaluate();
+                        }
+                        finally {
+                            running.set(null);
+                        }
+                    }
+                });
+            
+            return new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    try {
+                        timed.evaluate();
+                    }
+                    catch (InterruptedException e) {
+                        // FailOnTimeout stops waiting when interrupted, but leaves the 
+                        // statement running on its own thread
+                        final Thread thread = running.get();
+                        if (thread != null) {
+                            thread.interrupt();
+                        }
+                        throw e;
+                    }
+                }
+            };
+        }
+    }
+}
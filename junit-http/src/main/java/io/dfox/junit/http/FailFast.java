@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.Result;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.runners.model.Statement;
+
+/**
+ * FailFast stops a run at its first failed test. Once a test has failed, tests which have not 
+ * started are not started, and the threads running the statements of tests which are still 
+ * running are interrupted, so their results can be reported as not run instead. The thread 
+ * interrupted is the one evaluating the statement, which is not the thread that started the test
+ * when the statement is limited by a timeout. A single FailFast may be shared by the runs of 
+ * several classes, such as the classes of a package, which all stop at the first failure in any
+ * of them.
+ */
+final class FailFast {
+
+    private static final FailFast DISABLED = new FailFast(false);
+
+    private final boolean enabled;
+    private final Map<Thread, Cancellation> running = new HashMap<>();
+    private boolean failed = false;
+
+    /**
+     * Cancellation tracks whether a single test was cancelled because another test of the run 
+     * failed while it was running.
+     */
+    final class Cancellation {
+
+        private volatile boolean cancelled = false;
+
+        /**
+         * Register the thread evaluating a statement while it runs, so it is interrupted if 
+         * another test fails. The interrupt of a cancelled statement is cleared when it 
+         * finishes, so it does not reach the next task of the thread.
+         *
+         * @param statement The statement of the test
+         * @return The statement which registers its thread
+         */
+        Statement guard(final Statement statement) {
+            if (!enabled) {
+                return statement;
+            }
+
+            return new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    final Thread thread = Thread.currentThread();
+                    register(thread, Cancellation.this);
+                    try {
+                        statement.evaluate();
+                    }
+                    finally {
+                        unregister(thread);
+                    }
+                }
+            };
+        }
+
+        /**
+         * @return True if the test was cancelled because another test failed
+         */
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * @param enabled Whether the run stops at its first failure
+     */
+    private FailFast(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Create the FailFast of a run.
+     *
+     * @param options The options of the run
+     * @return A new FailFast if the options ask for the run to stop at its first failure, or one
+     * which never stops the run if they do not
+     */
+    static FailFast of(final RunOptions options) {
+        if (options.isFailFast()) {
+            return new FailFast(true);
+        }
+        else {
+            return DISABLED;
+        }
+    }
+
+    /**
+     * @return True if a test of the run has failed and the run should stop
+     */
+    synchronized boolean hasFailed() {
+        return failed;
+    }
+
+    /**
+     * Start a test, unless the run has already failed.
+     *
+     * @return True if the test may run
+     */
+    boolean start() {
+        return !enabled || !hasFailed();
+    }
+
+    /**
+     * Create the Cancellation of a test which is starting.
+     *
+     * @return The Cancellation
+     */
+    Cancellation cancellation() {
+        return new Cancellation();
+    }
+
+    /**
+     * Register the thread evaluating the statement of a test. A statement which starts after 
+     * the run has failed is interrupted straight away.
+     *
+     * @param thread The thread evaluating the statement
+     * @param cancellation The Cancellation of the test
+     */
+    private synchronized void register(final Thread thread, final Cancellation cancellation) {
+        running.put(thread, cancellation);
+        if (failed) {
+            cancellation.cancelled = true;
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Unregister the thread evaluating the statement of a test which has finished, clearing its
+     * interrupt if the test was cancelled.
+     *
+     * @param thread The thread which evaluated the statement
+     */
+    private synchronized void unregister(final Thread thread) {
+        final Cancellation cancellation = running.remove(thread);
+        if (cancellation != null && cancellation.cancelled) {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Watch the results passed to a consumer, and stop the run when one of them is a failure.
+     *
+     * @param consumer The consumer of the results
+     * @return The consumer which watches the results before passing them on
+     */
+    Consumer<Result> watch(final Consumer<Result> consumer) {
+        if (!enabled) {
+            return consumer;
+        }
+
+        return result -> {
+            consumer.accept(result);
+            if (result instanceof Failure) {
+                fail();
+            }
+        };
+    }
+
+    /**
+     * Stop the run, interrupting the tests running on other threads.
+     */
+    private synchronized void fail() {
+        if (!failed) {
+            failed = true;
+            final Thread current = Thread.currentThread();
+            running.forEach((thread, cancellation) -> {
+                if (thread != current) {
+                    cancellation.cancelled = true;
+                    thread.interrupt();
+                }
+            });
+        }
+    }
+}
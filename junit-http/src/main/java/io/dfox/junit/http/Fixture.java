@@ -23,7 +23,30 @@ import java.lang.annotation.Target;
 /**
  * Fixture denotes a method in a test class that performs side effects in the system. It can be used
  * to set up data on the backend to be used by a UI test.
+ * 
+ * A fixture whose state only needs to be created once can be marked idempotent. It then runs at
+ * most once per window, every call within the window returns the result of that run, and calls 
+ * made while it is running wait for it instead of running it again. A run which fails is not 
+ * remembered, so the next call runs the fixture again.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.METHOD, ElementType.TYPE })
-public @interface Fixture { }
+public @interface Fixture { 
+    
+    /**
+     * The window value which means an idempotent fixture runs only once for as long as its test 
+     * class is set up.
+     */
+    long FOREVER = 0L;
+    
+    /**
+     * @return Whether the fixture only needs to run once per window
+     */
+    boolean idempotent() default false;
+    
+    /**
+     * @return The time in seconds for which the result of an idempotent fixture is reused, or 
+     * {@link #FOREVER}
+     */
+    long windowSeconds() default FOREVER;
+}
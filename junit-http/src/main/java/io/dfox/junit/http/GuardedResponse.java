@@ -0,0 +1,181 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.function.BooleanSupplier;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * GuardedResponse wraps the response of an asynchronous request, and drops everything the 
+ * handler writes once the request has been completed by someone else, such as the container
+ * timing it out. A completed response may already be reused for another request, so a handler 
+ * which runs on after its request has timed out must not touch it.
+ */
+class GuardedResponse extends HttpServletResponseWrapper {
+
+    private final BooleanSupplier completed;
+
+    /**
+     * @param response The response to guard
+     * @param completed Returns true once the request has been completed
+     */
+    GuardedResponse(final HttpServletResponse response, final BooleanSupplier completed) {
+        super(response);
+        this.completed = completed;
+    }
+
+    /**
+     * @return True if the handler may still write to the response
+     */
+    private boolean isOpen() {
+        return !completed.getAsBoolean();
+    }
+
+    @Override
+    public void setStatus(final int status) {
+        if (isOpen()) {
+            super.setStatus(status);
+        }
+    }
+
+    @Override
+    public void sendError(final int status) throws IOException {
+        if (isOpen()) {
+            super.sendError(status);
+        }
+    }
+
+    @Override
+    public void sendError(final int status, final String message) throws IOException {
+        if (isOpen()) {
+            super.sendError(status, message);
+        }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (isOpen()) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (isOpen()) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setContentType(final String type) {
+        if (isOpen()) {
+            super.setContentType(type);
+        }
+    }
+
+    @Override
+    public void setCharacterEncoding(final String charset) {
+        if (isOpen()) {
+            super.setCharacterEncoding(charset);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (isOpen()) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        final ServletOutputStream stream = super.getOutputStream();
+        return new ServletOutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                if (isOpen()) {
+                    stream.write(b);
+                }
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) 
+                throws IOException {
+                
+                if (isOpen()) {
+                    stream.write(bytes, offset, length);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (isOpen()) {
+                    stream.flush();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (isOpen()) {
+                    stream.close();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return stream.isReady();
+            }
+
+            @Override
+            public void setWriteListener(final WriteListener listener) {
+                stream.setWriteListener(listener);
+            }
+        };
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        final PrintWriter writer = super.getWriter();
+        return new PrintWriter(new Writer() {
+            @Override
+            public void write(final char[] chars, final int offset, final int length) {
+                if (isOpen()) {
+                    writer.write(chars, offset, length);
+                }
+            }
+
+            @Override
+            public void flush() {
+                if (isOpen()) {
+                    writer.flush();
+                }
+            }
+
+            @Override
+            public void close() {
+                if (isOpen()) {
+                    writer.close();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Result;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * IdempotentFixtures remembers the runs of the idempotent fixtures of a test class, so each 
+ * runs at most once per window. A call made while the fixture is running waits for that run, 
+ * and a call made within the window after a successful run returns its result without running
+ * the fixture. A failed run is forgotten as soon as it finishes.
+ */
+final class IdempotentFixtures {
+
+    private final ConcurrentMap<Path, Run> runs = new ConcurrentHashMap<>();
+
+    /**
+     * Run is a run of a fixture, which may still be in progress.
+     */
+    private static final class Run {
+
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        private final long startedNanos = System.nanoTime();
+
+        /**
+         * @param windowNanos The window of the fixture, or {@link Fixture#FOREVER}
+         * @return True if the run is in progress, or its result may still be reused
+         */
+        boolean isCurrent(final long windowNanos) {
+            return !result.isDone() 
+                || windowNanos == Fixture.FOREVER 
+                || System.nanoTime() - startedNanos < windowNanos;
+        }
+    }
+
+    /**
+     * Run the fixture at the specified path, unless it ran within the window or is running.
+     *
+     * @param path The path to the fixture
+     * @param windowSeconds The window of the fixture, or {@link Fixture#FOREVER}
+     * @param fixture The supplier which runs the fixture and returns its result
+     * @return The result of the fixture
+     */
+    Result run(final Path path, final long windowSeconds, final Supplier<Result> fixture) {
+        final long windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+
+        while (true) {
+            final Run existing = runs.get(path);
+            if (existing != null && existing.isCurrent(windowNanos)) {
+                return existing.result.join();
+            }
+
+            final Run run = new Run();
+            final boolean started;
+            if (existing == null) {
+                started = runs.putIfAbsent(path, run) == null;
+            }
+            else {
+                started = runs.replace(path, existing, run);
+            }
+
+            if (started) {
+                Result result = null;
+                try {
+                    result = fixture.get();
+                    return result;
+                }
+                finally {
+                    if (result == null || result instanceof Failure) {
+                        runs.remove(path, run);
+                    }
+                    run.result.complete(result);
+                }
+            }
+        }
+    }
+}
@@ -15,18 +15,47 @@
  */
 package io.dfox.junit.http;
 
+import io.dfox.junit.http.api.AdmissionException;
+import io.dfox.junit.http.api.AdmissionStats;
+import io.dfox.junit.http.api.BatchResult;
+import io.dfox.junit.http.api.BatchSummary;
+import io.dfox.junit.http.api.CoordinatedSummary;
+import io.dfox.junit.http.api.Discovery;
 import io.dfox.junit.http.api.MethodNotFoundException;
 import io.dfox.junit.http.api.InvalidPathException;
+import io.dfox.junit.http.api.RunnerCacheStats;
 import io.dfox.junit.http.api.RunnerException;
+import io.dfox.junit.http.util.ClassScanner;
 import io.dfox.junit.http.util.TestUtils;
 import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Result;
 import io.dfox.junit.http.api.Summary;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
 import org.junit.runners.model.InitializationError;
 
 /**
@@ -34,7 +63,285 @@ import org.junit.runners.model.InitializationError;
  */
 public class JUnitHttpApplication {
 
-    private final Map<String, JUnitHttpRunner> runners = new HashMap<>();
+    private static final int SUCCESS_STATUS = 200;
+    private static final int NOT_FOUND_STATUS = 404;
+    private static final int TOO_MANY_REQUESTS_STATUS = 429;
+    private static final int INTERNAL_ERROR_STATUS = 500;
+    private static final String INITIALIZATION_ERROR = "initializationError";
+    private static final String ADMISSION_ERROR = "admissionError";
+    private static final long EVICTION_INTERVAL_MILLIS = 1000L;
+
+    private final RunnerCache runners;
+    private final ResultCache results;
+    private final TimingStore timings = new TimingStore();
+    private final RunCoalescer coalescer = new RunCoalescer();
+    private final Map<String, DataDocument> dataDocuments = new ConcurrentHashMap<>();
+    private final Configuration configuration;
+    private final ForkJoinPool pool;
+    private final AdmissionController admission;
+    private final Optional<ScheduledExecutorService> evictor;
+    private final Optional<Coordinator> coordinator;
+    private volatile CompletableFuture<Void> warmUp = CompletableFuture.completedFuture(null);
+
+    /**
+     * Create a JUnitHttpApplication with the default configuration.
+     */
+    public JUnitHttpApplication() {
+        this(Configuration.defaults());
+    }
+
+    /**
+     * @param configuration The configuration of the application
+     */
+    public JUnitHttpApplication(final Configuration configuration) {
+        this.configuration = configuration;
+        this.pool = createPool(configuration.getParallelism());
+        this.admission = new AdmissionController(configuration);
+        this.runners = new RunnerCache(configuration, pool, timings);
+        this.results = new ResultCache(configuration);
+        this.evictor = createEvictor(runners, configuration);
+        this.coordinator = createCoordinator(configuration);
+    }
+
+    /**
+     * Create the coordinator which splits runs between the peers of the application.
+     *
+     * @param configuration The configuration of the application
+     * @return The coordinator, or an empty Optional if the application has no peers
+     */
+    private static Optional<Coordinator> createCoordinator(final Configuration configuration) {
+        if (configuration.getCoordinatorPeers().isEmpty()) {
+            return Optional.empty();
+        }
+        else {
+            return Optional.of(new Coordinator(configuration));
+        }
+    }
+
+    /**
+     * Create the thread which evicts runners that have been idle for too long, or are the least
+     * recently used while the cache is too large. It checks the cache every 
+     * {@link #EVICTION_INTERVAL_MILLIS}, or more often if runners may only be idle for less.
+     *
+     * @param runners The cache to evict runners from
+     * @param configuration The configuration containing the limits of the cache
+     * @return The evicting thread, or an empty Optional if runners are never evicted
+     */
+    private static Optional<ScheduledExecutorService> createEvictor(
+        final RunnerCache runners, final Configuration configuration) {
+        
+        final long maxIdleMillis = configuration.getRunnersMaxIdleMillis();
+        if (maxIdleMillis == Configuration.UNLIMITED 
+            && configuration.getRunnersMaxSize() == Configuration.UNLIMITED) {
+            return Optional.empty();
+        }
+        else {
+            long interval = EVICTION_INTERVAL_MILLIS;
+            if (maxIdleMillis != Configuration.UNLIMITED) {
+                interval = Math.min(interval, maxIdleMillis);
+            }
+            final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "junit-http-runner-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            evictor.scheduleWithFixedDelay(runners::evictExpired, interval, interval,
+                                           TimeUnit.MILLISECONDS);
+            return Optional.of(evictor);
+        }
+    }
+
+    /**
+     * Create the pool used to run tests and fixtures in parallel. The worker threads use the
+     * context class loader of the thread creating the application, so test classes can be found
+     * from them the same way they are from request threads.
+     *
+     * @param parallelism The number of worker threads
+     * @return The pool
+     */
+    private static ForkJoinPool createPool(final int parallelism) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final ForkJoinWorkerThreadFactory threadFactory = forkJoinPool -> {
+            final ForkJoinWorkerThread thread = 
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("junit-http-worker-" + thread.getPoolIndex());
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        };
+        return new ForkJoinPool(parallelism, threadFactory, null, false);
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Get the statistics of the runs admitted and rejected by the application.
+     *
+     * @return A snapshot of the statistics
+     */
+    public AdmissionStats getAdmissionStats() {
+        return admission.getStats();
+    }
+
+    /**
+     * Get the statistics of the cache of test runners.
+     *
+     * @return A snapshot of the statistics
+     */
+    public RunnerCacheStats getRunnerCacheStats() {
+        return runners.getStats();
+    }
+
+    /**
+     * @return The store of the time each test, fixture and test class has taken to run
+     */
+    public TimingStore getTimings() {
+        return timings;
+    }
+
+    /**
+     * Load the timings saved by an earlier run of the application from the file configured with
+     * {@link Configuration#TIMINGS_FILE}, if there is one, so the first runs are scheduled by 
+     * them.
+     *
+     * @throws IOException If the file exists but could not be read
+     */
+    public void loadTimings() throws IOException {
+        if (configuration.getTimingsFile().isPresent()) {
+            timings.load(new File(configuration.getTimingsFile().get()));
+        }
+    }
+
+    /**
+     * Save the timings to the file configured with {@link Configuration#TIMINGS_FILE}, if there
+     * is one.
+     *
+     * @throws IOException If the file could not be written
+     */
+    public void saveTimings() throws IOException {
+        if (configuration.getTimingsFile().isPresent()) {
+            timings.save(new File(configuration.getTimingsFile().get()));
+        }
+    }
+
+    /**
+     * Start creating the runners of the test classes in the packages configured with
+     * {@link Configuration#WARMUP_PACKAGES}, so that the first requests for them do not have to
+     * wait for the classes to load and their @BeforeClass methods to run. The runners are created
+     * in parallel on the application's worker pool. A class whose runner cannot be created is
+     * reported to the failure handler and skipped; requests for it will try again.
+     *
+     * @param onFailure The handler called with the name of each package or class which could not
+     * be warmed up, and the reason
+     * @return The future which completes when every runner has been created or has failed
+     */
+    public CompletableFuture<Void> warmUp(final BiConsumer<String, Throwable> onFailure) {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (String packageName : configuration.getWarmupPackages()) {
+            final List<String> classNames;
+            try {
+                classNames = ClassScanner.findClasses(classLoader, packageName);
+            }
+            catch (IOException e) {
+                onFailure.accept(packageName, e);
+                continue;
+            }
+
+            for (String className : classNames) {
+                tasks.add(CompletableFuture
+                    .runAsync(() -> warmUp(classLoader, className), pool)
+                    .exceptionally(e -> {
+                        onFailure.accept(className, e.getCause());
+                        return null;
+                    }));
+            }
+        }
+
+        warmUp = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+        return warmUp;
+    }
+
+    /**
+     * Create the runner for a class if it is a test class.
+     *
+     * @param classLoader The class loader to load the class with
+     * @param className The name of the class
+     * @throws RunnerException If the runner could not be created
+     */
+    private void warmUp(final ClassLoader classLoader, final String className) 
+        throws RunnerException {
+        
+        if (isTestClass(classLoader, className)) {
+            leaseRunner(new Path(className)).close();
+        }
+    }
+
+    /**
+     * Load a class without initializing it, and check whether it is a test class.
+     *
+     * @param classLoader The class loader to load the class with
+     * @param className The name of the class
+     * @return True if the class is a test class
+     * @throws RunnerException If the class could not be loaded
+     */
+    private static boolean isTestClass(final ClassLoader classLoader, final String className) 
+        throws RunnerException {
+        
+        return isTestClass(loadClass(classLoader, className));
+    }
+
+    /**
+     * Load a class without initializing it.
+     *
+     * @param classLoader The class loader to load the class with
+     * @param className The name of the class
+     * @return The class
+     * @throws RunnerException If the class could not be loaded
+     */
+    private static Class<?> loadClass(final ClassLoader classLoader, final String className) 
+        throws RunnerException {
+        
+        try {
+            return Class.forName(className, false, classLoader);
+        }
+        catch (ClassNotFoundException | LinkageError e) {
+            throw new RunnerException("Could not load class: " + className, e);
+        }
+    }
+
+    /**
+     * @param type A class
+     * @return True if the class is a public, concrete class with @Test or @Fixture methods
+     */
+    private static boolean isTestClass(final Class<?> type) {
+        final int modifiers = type.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) 
+            || type.isInterface()) {
+            return false;
+        }
+
+        return Arrays.stream(type.getMethods()).anyMatch(JUnitHttpApplication::isTestMethod);
+    }
+
+    /**
+     * @param method A method
+     * @return True if the method is annotated with @Test or @Fixture
+     */
+    private static boolean isTestMethod(final Method method) {
+        return method.isAnnotationPresent(Test.class) || method.isAnnotationPresent(Fixture.class);
+    }
+
+    /**
+     * @return True once the warm-up started by {@link #warmUp(java.util.function.BiConsumer)} 
+     * has finished, or if none was started
+     */
+    public boolean isReady() {
+        return warmUp.isDone();
+    }
 
     /**
      * Run the {@link io.dfox.junit.http.JUnitHttpRunner#invokeAfterClassMethods() } for every
@@ -43,43 +350,199 @@ public class JUnitHttpApplication {
      * @throws RunnerException If any of the test's @AfterClass methods throws an exception
      */
     public void destroy() throws RunnerException {
-        runners.values().stream().forEach(JUnitHttpRunner::invokeAfterClassMethods);
+        pool.shutdownNow();
+        evictor.ifPresent(ScheduledExecutorService::shutdownNow);
+        coordinator.ifPresent(Coordinator::shutdown);
+        runners.destroy();
     }
 
     /**
-     * Return a runner from the cache, or instantiate one, add it to the cache, and return it if
-     * one hasn't been requested for the group specified in the
-     * {@link io.dfox.junit.http.api.Path}.
+     * Lease the runner for the group specified in the {@link io.dfox.junit.http.api.Path}, 
+     * creating it and running its @BeforeClass methods if it has not been requested before. 
+     * Runners for different groups are created concurrently. The runner is not evicted, and its
+     * {@literal @}AfterClass methods are not run, until the lease is closed, so the runner must
+     * only be used while the lease is open.
      *
-     * @param testPath The path of the test to return the runner for
-     * @return The runner for the specified path
+     * @param testPath The path of the test to lease the runner for
+     * @return The lease of the runner for the specified path
      * @throws MethodNotFoundException If the test could not be found (no test class exists for that
      * grouping)
      * @throws RunnerException If the runner could not be created
      */
-    public synchronized JUnitHttpRunner getRunner(final Path testPath)
+    RunnerCache.Lease leaseRunner(final Path testPath)
         throws MethodNotFoundException, RunnerException {
 
+        return runners.acquire(testPath);
+    }
+
+    /**
+     * @return True if the application has peers to split runs between
+     */
+    public boolean isCoordinator() {
+        return coordinator.isPresent();
+    }
+
+    /**
+     * Split a run of the tests of a class or package into one shard per peer, run the shards on 
+     * the peers concurrently, and merge their results. The selector of the options is sharded 
+     * by each peer; any shard it already has is replaced.
+     *
+     * @param path The path to the class or package, or to a single test
+     * @param options The options of the run
+     * @return The merged Summary, and how each shard was run
+     * @throws IllegalStateException If the application is not a coordinator
+     * @throws InvalidPathException If the path is not valid
+     * @throws MethodNotFoundException If a peer could not find the tests
+     */
+    public CoordinatedSummary coordinate(final String path, final RunOptions options)
+        throws IllegalStateException, InvalidPathException, MethodNotFoundException {
+        
+        if (!coordinator.isPresent()) {
+            throw new IllegalStateException("The application has no peers");
+        }
+        final Optional<Path> parsedPath = Path.parse(path);
+        if (!parsedPath.isPresent() 
+            || (parsedPath.get().isPackage() && parsedPath.get().getName().isPresent())) {
+            throw new InvalidPathException(path);
+        }
+        return coordinator.get().run(parsedPath.get(), options);
+    }
+
+    /**
+     * List the tests of a class or package, and the tests of them a run with the selector would 
+     * run. The runners of the classes are created if they have not been already, which runs 
+     * their {@literal @}BeforeClass methods, so each class is only listed once it is admitted by 
+     * the application's admission limits for its grouping. A class in a package which cannot be 
+     * loaded, or whose runner cannot be created, is listed as a single "initializationError" 
+     * test, and a class which is not admitted as a single "admissionError" test, the same as a 
+     * run of the package reports them.
+     *
+     * @param path The path to the class or package, or to a single test
+     * @param selector The selector of the tests
+     * @return The discovered tests
+     * @throws InvalidPathException If the path is not valid
+     * @throws MethodNotFoundException If the class, package or test cannot be found
+     * @throws RunnerException If the runner of the class could not be created
+     * @throws AdmissionException If the application is too busy to list the tests of the class
+     */
+    public Discovery discover(final String path, final TestSelector selector)
+        throws InvalidPathException, MethodNotFoundException, RunnerException, 
+               AdmissionException {
+        
+        final Optional<Path> parsedPath = Path.parse(path);
+        if (!parsedPath.isPresent() 
+            || (parsedPath.get().isPackage() && parsedPath.get().getName().isPresent())) {
+            throw new InvalidPathException(path);
+        }
+        
+        final ImmutableList.Builder<String> tests = ImmutableList.builder();
+        final ImmutableList.Builder<String> selected = ImmutableList.builder();
+        if (parsedPath.get().isPackage()) {
+            discoverPackage(parsedPath.get(), selector, tests, selected);
+        }
+        else {
+            run(parsedPath.get(), (runner, testPath) -> {
+                discover(runner, testPath, selector, tests, selected);
+                return null;
+            });
+        }
+        
+        final Discovery discovery = new Discovery(tests.build(), selected.build());
+        if (discovery.getTests().isEmpty() 
+            && (parsedPath.get().isPackage() || parsedPath.get().getName().isPresent())) {
+            throw new MethodNotFoundException(parsedPath.get());
+        }
+        return discovery;
+    }
+
+    /**
+     * List the tests of every test class in a package. A class which cannot be loaded, or whose 
+     * runner cannot be created, is listed as its "initializationError" test, and a class which 
+     * is not admitted as its "admissionError" test; either is selected if it falls in the 
+     * selector's shard.
+     *
+     * @param packagePath The path to the package
+     * @param selector The selector of the tests
+     * @param tests The builder to add the paths of the tests to
+     * @param selected The builder to add the paths of the selected tests to
+     * @throws MethodNotFoundException If the runner of a class cannot find the class
+     * @throws RunnerException If the package could not be scanned
+     */
+    private void discoverPackage(final Path packagePath, final TestSelector selector, 
+                                 final ImmutableList.Builder<String> tests, 
+                                 final ImmutableList.Builder<String> selected) 
+        throws MethodNotFoundException, RunnerException {
+        
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final List<String> classNames;
         try {
-            final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            final JUnitHttpRunner runner = runners.get(testPath.getGrouping());
-            if (runner == null) {
-                final Class<?> testClass = Class.forName(testPath.getGrouping(), true, classLoader);
-                final JUnitHttpRunner newRunner = new JUnitHttpRunner(testClass);
-                newRunner.invokeBeforeClassMethods();
-                runners.put(testPath.getGrouping(), newRunner);
-                return newRunner;
+            classNames = ClassScanner.findClasses(classLoader, packagePath.getPackageName());
+        }
+        catch (IOException e) {
+            throw new RunnerException("Could not scan package: " + packagePath.getPackageName(), 
+                                      e);
+        }
+        
+        for (String className : classNames) {
+            try {
+                if (isTestClass(classLoader, className)) {
+                    run(new Path(className), (runner, testPath) -> {
+                        discover(runner, packagePath, selector, tests, selected);
+                        return null;
+                    });
+                }
             }
-            else {
-                return runner;
+            catch (RunnerException e) {
+                discoverError(new Path(className, INITIALIZATION_ERROR), selector, tests, 
+                              selected);
+            }
+            catch (AdmissionException e) {
+                discoverError(new Path(className, ADMISSION_ERROR), selector, tests, selected);
             }
         }
-        catch (InitializationError e) {
-            throw new RunnerException("Could not initialize runner for: "
-                                         + testPath.getGrouping(), e);
+    }
+
+    /**
+     * List the test reporting a class of a package which could not be listed.
+     *
+     * @param errorPath The path of the test reporting the error
+     * @param selector The selector of the tests
+     * @param tests The builder to add the path of the test to
+     * @param selected The builder to add the path of the test to if it is selected
+     */
+    private static void discoverError(final Path errorPath, final TestSelector selector, 
+                                      final ImmutableList.Builder<String> tests, 
+                                      final ImmutableList.Builder<String> selected) {
+        
+        tests.add(errorPath.toString());
+        if (selector.inShard(errorPath)) {
+            selected.add(errorPath.toString());
         }
-        catch (ClassNotFoundException e) {
-            throw new MethodNotFoundException(testPath);
+    }
+
+    /**
+     * List the tests of a class.
+     *
+     * @param runner The runner of the class, which must be leased
+     * @param path The requested path, which limits the tests to a single one if it has a name
+     * @param selector The selector of the tests
+     * @param tests The builder to add the paths of the tests to
+     * @param selected The builder to add the paths of the selected tests to
+     */
+    private static void discover(final JUnitHttpRunner runner, final Path path, 
+                                 final TestSelector selector, 
+                                 final ImmutableList.Builder<String> tests, 
+                                 final ImmutableList.Builder<String> selected) {
+        
+        final Set<Path> selectedPaths = ImmutableSet.copyOf(runner.getTestPaths(selector));
+        for (Path testPath : runner.getTestPaths()) {
+            if (path.getName().isPresent() && !testPath.equals(path)) {
+                continue;
+            }
+            tests.add(testPath.toString());
+            if (selectedPaths.contains(testPath)) {
+                selected.add(testPath.toString());
+            }
         }
     }
 
@@ -97,28 +560,100 @@ public class JUnitHttpApplication {
     }
 
     /**
-     * Run the specified function using the context created by the specified path.
+     * Get the serialized document of the test data at the specified path. Documents are loaded
+     * and serialized the first time they are requested, and kept for the life of the
+     * application, since test data does not change while it is deployed.
      *
+     * @param path The path to the test data, relative to the test data directory
+     * @return The document, or an empty Optional if there is no test data at the path
+     * @throws IOException If the test data could not be loaded
+     */
+    public Optional<DataDocument> getDataDocument(final String path) throws IOException {
+        final DataDocument cached = dataDocuments.get(path);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        final JsonNode data = getData(path);
+        if (data == null) {
+            return Optional.empty();
+        }
+        else {
+            final DataDocument document = new DataDocument(path, data);
+            final DataDocument existing = dataDocuments.putIfAbsent(path, document);
+            if (existing == null) {
+                return Optional.of(document);
+            }
+            else {
+                return Optional.of(existing);
+            }
+        }
+    }
+
+    /**
+     * Run the specified function using the context created by the specified path. The function
+     * is only run once it is admitted by the application's admission limits, and the runner is
+     * not evicted while the function runs.
+     *
+     * @param <T> The type returned by the function
      * @param path The path to the function
      * @param func The function to execute using the runner and parsed path
-     * @return The runner Summary
+     * @return The result of the function
      * @throws InvalidPathException If the path is invalid
+     * @throws AdmissionException If the application is too busy to run the function
      */
-    public Summary run(final String path, final BiFunction<JUnitHttpRunner, Path, Summary> func)
-        throws InvalidPathException {
+    public <T> T run(final String path, final BiFunction<JUnitHttpRunner, Path, T> func)
+        throws InvalidPathException, AdmissionException {
 
         final Optional<Path> maybePath = Path.parse(path);
 
         if (maybePath.isPresent()) {
-            Path testPath = maybePath.get();
-            final JUnitHttpRunner runner = getRunner(testPath);
-            return func.apply(runner, testPath);
+            return run(maybePath.get(), func);
         }
         else {
             throw new InvalidPathException(path);
         }
     }
 
+    /**
+     * Run the specified function using the runner of the specified path, once it is admitted by 
+     * the application's admission limits for the grouping of the path.
+     *
+     * @param <T> The type returned by the function
+     * @param testPath The path to the function
+     * @param func The function to execute using the runner and path
+     * @return The result of the function
+     * @throws AdmissionException If the application is too busy to run the function
+     */
+    private <T> T run(final Path testPath, final BiFunction<JUnitHttpRunner, Path, T> func)
+        throws AdmissionException {
+        
+        final AdmissionController.Permit permit = admission.acquire(testPath.getGrouping());
+        try {
+            return runAdmitted(testPath, func);
+        }
+        finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Run the specified function using the runner of the specified path, as part of a run which
+     * has already been admitted. The runner is not evicted while the function runs.
+     *
+     * @param <T> The type returned by the function
+     * @param testPath The path to the function
+     * @param func The function to execute using the runner and path
+     * @return The result of the function
+     */
+    private <T> T runAdmitted(final Path testPath, 
+                              final BiFunction<JUnitHttpRunner, Path, T> func) {
+        
+        try (RunnerCache.Lease lease = runners.acquire(testPath)) {
+            return func.apply(lease.getRunner(), testPath);
+        }
+    }
+
     /**
      * Run the fixture at the specified path.
      *
@@ -129,7 +664,23 @@ public class JUnitHttpApplication {
      * @throws InvalidPathException If the path is not valid
      */
     public Summary runFixture(final String path) throws InvalidPathException {
-        return run(path, (runner, testPath) -> runner.runFixture(testPath));
+        return runFixture(path, RunOptions.defaults());
+    }
+
+    /**
+     * Run the fixture at the specified path with the specified options.
+     *
+     * @param path The path to the fixture. The path must follow the format specified by the
+     * {@link Path#parse(java.lang.String)} method.
+     * @param options The options of the run
+     *
+     * @return The Summary representing the results of the fixture(s) which ran
+     * @throws InvalidPathException If the path is not valid
+     */
+    public Summary runFixture(final String path, final RunOptions options) 
+        throws InvalidPathException {
+        
+        return run(path, (runner, testPath) -> runner.runFixture(testPath, options));
     }
 
     /**
@@ -142,6 +693,379 @@ public class JUnitHttpApplication {
      * @throws InvalidPathException If the path is not valid
      */
     public Summary runTest(final String path) throws InvalidPathException {
-        return run(path, (runner, testPath) -> runner.runTests(testPath));
+        return runTest(path, RunOptions.defaults());
+    }
+
+    /**
+     * Run the test at the specified path with the specified options.
+     *
+     * @param path The path to the test. The path must follow the format specified by the
+     * {@link Path#parse(java.lang.String)} method.
+     * @param options The options of the run
+     *
+     * @return The Summary representing the results of the test(s) which ran, the cached 
+     * Summary of an earlier run if the options or the tests allow it, or the Summary of an 
+     * identical run which was in progress if the test class is annotated with {@link Coalesce}
+     * @throws InvalidPathException If the path is not valid
+     */
+    public Summary runTest(final String path, final RunOptions options) 
+        throws InvalidPathException {
+        
+        final Optional<Path> parsedPath = Path.parse(path);
+        if (parsedPath.isPresent() && parsedPath.get().isPackage()) {
+            final Summary.Builder builder = Summary.builder();
+            runPackage(path, parsedPath.get(), options, builder::addResult);
+            return builder.build();
+        }
+        
+        else if (!parsedPath.isPresent()) {
+            throw new InvalidPathException(path);
+        }
+        
+        final Optional<Summary> reused = reuseSummary(parsedPath.get(), options);
+        if (reused.isPresent()) {
+            return reused.get();
+        }
+        return run(path, (runner, testPath) -> runCachedTests(runner, testPath, options));
+    }
+    
+    /**
+     * Find a Summary which may be returned instead of running the test(s) at the specified path:
+     * a cached Summary of an earlier run, or the Summary of an identical run in progress.
+     *
+     * @param testPath The path to the test(s)
+     * @param options The options of the run
+     * @return The Summary, or an empty Optional if the test(s) must be run
+     */
+    private Optional<Summary> reuseSummary(final Path testPath, final RunOptions options) {
+        if (results.isEnabled()) {
+            final Optional<Summary> cached = results.get(testPath, options);
+            if (cached.isPresent()) {
+                return cached;
+            }
+        }
+        return coalescer.join(testPath, options);
+    }
+    
+    /**
+     * Run the test(s) at the specified path, sharing the run with identical runs if the test 
+     * class is annotated with {@link Coalesce}, and cache the Summary if the options or the tests
+     * allow it.
+     *
+     * @param runner The runner of the test class
+     * @param testPath The path to the test(s)
+     * @param options The options of the run
+     * @return The Summary of the run
+     */
+    private Summary runCachedTests(final JUnitHttpRunner runner, final Path testPath, 
+                                   final RunOptions options) {
+        
+        if (runner.isCoalesced()) {
+            return coalescer.run(testPath, options, () -> runTests(runner, testPath, options));
+        }
+        else {
+            return runTests(runner, testPath, options);
+        }
+    }
+    
+    /**
+     * Run the test(s) at the specified path and cache the Summary if the options or the tests 
+     * allow it. A run whose timeout stopped it before every test ran is not cached.
+     *
+     * @param runner The runner of the test class
+     * @param testPath The path to the test(s)
+     * @param options The options of the run
+     * @return The Summary of the run
+     */
+    private Summary runTests(final JUnitHttpRunner runner, final Path testPath, 
+                             final RunOptions options) {
+        
+        final Summary summary = runner.runTests(testPath, options);
+        int selectedTests = 1;
+        if (!testPath.getName().isPresent()) {
+            selectedTests = runner.getTestPaths(options.getSelector()).size();
+        }
+        results.put(testPath, options, runner.getResultMaxAgeSeconds(testPath), selectedTests, 
+                    summary);
+        return summary;
+    }
+    
+    /**
+     * Run the test at the specified path, passing each result to the consumer as soon as the test
+     * finishes instead of collecting them into a Summary.
+     *
+     * @param path The path to the test. The path must follow the format specified by the
+     * {@link Path#parse(java.lang.String)} method.
+     * @param consumer The consumer to pass the results to
+     *
+     * @throws InvalidPathException If the path is not valid
+     */
+    public void streamTest(final String path, final Consumer<Result> consumer)
+        throws InvalidPathException {
+
+        streamTest(path, RunOptions.defaults(), consumer);
+    }
+    
+    /**
+     * Run the test at the specified path with the specified options, passing each result to the
+     * consumer as soon as the test finishes instead of collecting them into a Summary.
+     *
+     * @param path The path to the test. The path must follow the format specified by the
+     * {@link Path#parse(java.lang.String)} method.
+     * @param options The options of the run
+     * @param consumer The consumer to pass the results to
+     *
+     * @throws InvalidPathException If the path is not valid
+     */
+    public void streamTest(final String path, final RunOptions options, 
+                           final Consumer<Result> consumer) throws InvalidPathException {
+
+        final Optional<Path> packagePath = Path.parse(path).filter(Path::isPackage);
+        if (packagePath.isPresent()) {
+            runPackage(path, packagePath.get(), options, consumer);
+        }
+        else {
+            run(path, (runner, testPath) -> {
+                runner.runTests(testPath, options, consumer);
+                return null;
+            });
+        }
+    }
+    
+    /**
+     * Run all of the tests of every test class in a package and its subpackages. The classes are 
+     * run concurrently on the worker pool, each admitted separately, starting with the classes 
+     * which have taken the longest before, and their results are passed to the consumer in the 
+     * order of the class names. The time limit of the options applies to 
+     * the package as a whole; classes which have not started when it is up are not run. A class 
+     * which cannot be loaded, or whose runner cannot be created, is reported as a failed 
+     * "initializationError" test. In a sharded run, it is only reported by the shard the 
+     * "initializationError" test falls in, so that the shards of a run report it once between 
+     * them.
+     * 
+     * A fail-fast package run stops at the first failure in any class. The tests of classes which
+     * have not started by then are reported as not run, if the run would have selected them, 
+     * without running their @BeforeClass methods.
+     * The classes of a fail-fast run are run directly rather than through the result cache, since
+     * they share the run's state.
+     * 
+     * Each class is admitted for its own grouping, the same as a run of the class on its own, so
+     * a package run counts against the limits of every class it runs. A class which is not 
+     * admitted is reported as a failed "admissionError" test, in the shard that test falls in, 
+     * and the rest of the package still runs.
+     *
+     * @param path The requested path
+     * @param packagePath The parsed package path
+     * @param options The options of the run
+     * @param consumer The consumer to pass the results to
+     * @throws InvalidPathException If the path names a test, which package paths cannot
+     * @throws MethodNotFoundException If the package does not contain any classes
+     */
+    private void runPackage(final String path, final Path packagePath, final RunOptions options, 
+                            final Consumer<Result> consumer) 
+        throws InvalidPathException, MethodNotFoundException {
+        
+        if (packagePath.getName().isPresent()) {
+            throw new InvalidPathException(path);
+        }
+        
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        final List<String> classNames;
+        try {
+            classNames = ClassScanner.findClasses(classLoader, packagePath.getPackageName());
+        }
+        catch (IOException e) {
+            throw new RunnerException("Could not scan package: " + packagePath.getPackageName(), 
+                                      e);
+        }
+        if (classNames.isEmpty()) {
+            throw new MethodNotFoundException(packagePath);
+        }
+        
+        final Deadline deadline = Deadline.start(options);
+        final FailFast failFast = FailFast.of(options);
+        LongestFirst.<String, Summary>submit(pool, timings, classNames, 
+                                             className -> Optional.of(new Path(className)),
+                                             className -> runPackageClass(classLoader, className, 
+                                                                          options, deadline, 
+                                                                          failFast))
+            .joinInOrder(summary -> summary.getResults().forEach(consumer));
+    }
+    
+    /**
+     * Run all of the tests of a class found in a package, if it is a test class.
+     *
+     * @param classLoader The class loader to load the class with
+     * @param className The name of the class
+     * @param options The options of the package run
+     * @param deadline The deadline of the package run
+     * @param failFast The FailFast of the package run
+     * @return The summary of the tests which ran
+     */
+    private Summary runPackageClass(final ClassLoader classLoader, final String className, 
+                                    final RunOptions options, final Deadline deadline, 
+                                    final FailFast failFast) {
+        
+        final Summary.Builder builder = Summary.builder();
+        if (deadline.isExpired()) {
+            return builder.build();
+        }
+        
+        try {
+            final Class<?> type = loadClass(classLoader, className);
+            if (!isTestClass(type)) {
+                return builder.build();
+            }
+            else if (failFast.hasFailed()) {
+                return notRun(type, options);
+            }
+            else if (options.isFailFast()) {
+                return run(new Path(className), (runner, testPath) -> {
+                    runner.runTests(testPath, deadline.remaining(options), failFast, 
+                                    builder::addResult);
+                    return builder.build();
+                });
+            }
+            
+            final Path classPath = new Path(className);
+            final Optional<Summary> reused = reuseSummary(classPath, deadline.remaining(options));
+            if (reused.isPresent()) {
+                return reused.get();
+            }
+            return run(classPath, (runner, testPath) -> 
+                runCachedTests(runner, testPath, deadline.remaining(options)));
+        }
+        catch (AdmissionException e) {
+            if (options.getSelector().inShard(new Path(className, ADMISSION_ERROR))) {
+                failFast.watch(builder::addResult).accept(
+                    JunitHttpRunListener.createFailure(className, ADMISSION_ERROR, e));
+            }
+            return builder.build();
+        }
+        catch (RunnerException e) {
+            if (options.getSelector().inShard(new Path(className, INITIALIZATION_ERROR))) {
+                failFast.watch(builder::addResult).accept(
+                    JunitHttpRunListener.createFailure(className, INITIALIZATION_ERROR, e));
+            }
+            return builder.build();
+        }
+    }
+    
+    /**
+     * Report the tests of a class which a run with the options would have run as not run. A 
+     * runner is created to select the tests, the same way a run selects them, but it is not 
+     * cached and its @BeforeClass methods are not run.
+     *
+     * @param type The test class
+     * @param options The options of the run
+     * @return The summary of the tests, in the order they are run in
+     * @throws RunnerException If the runner of the class could not be created
+     */
+    private Summary notRun(final Class<?> type, final RunOptions options) 
+        throws RunnerException {
+        
+        try {
+            return new JUnitHttpRunner(type, pool, false, timings).notRun(options.getSelector());
+        }
+        catch (InitializationError e) {
+            throw new RunnerException("Could not initialize runner for: " + type.getName(), e);
+        }
+    }
+    
+    /**
+     * Run a batch of tests and fixtures. Each path is prefixed with "tests" or "fixtures", the
+     * same as it would be if it were requested on its own, for example
+     * "fixtures/com.example.Tests/createNote". A path which cannot be run does not stop the rest
+     * of the batch from running; the error is recorded in its result instead.
+     *
+     * @param paths The paths to run
+     * @param parallel If false, the paths are run one at a time in the order given. If true, they
+     * are run concurrently, bounded by the configured parallelism.
+     * @return The BatchSummary containing a result for each path, in the order given
+     */
+    public BatchSummary runBatch(final List<String> paths, final boolean parallel) {
+        return runBatch(paths, parallel, RunOptions.defaults());
+    }
+    
+    /**
+     * Run a batch of tests and fixtures with the specified options, which apply to each path 
+     * separately.
+     *
+     * @param paths The paths to run
+     * @param parallel If false, the paths are run one at a time in the order given. If true, they
+     * are run concurrently, bounded by the configured parallelism, starting with the paths which
+     * have taken the longest before.
+     * @param options The options each path is run with
+     * @return The BatchSummary containing a result for each path, in the order given
+     * @see #runBatch(java.util.List, boolean)
+     */
+    public BatchSummary runBatch(final List<String> paths, final boolean parallel, 
+                                 final RunOptions options) {
+        
+        final BatchSummary.Builder builder = BatchSummary.builder();
+        
+        if (parallel) {
+            LongestFirst.<String, BatchResult>submit(pool, timings, paths, 
+                                                     JUnitHttpApplication::parseBatchPath,
+                                                     path -> runBatchPath(path, options))
+                .joinInOrder(builder::addResult);
+        }
+        else {
+            paths.stream().forEach(path -> builder.addResult(runBatchPath(path, options)));
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * Parse the path of a test or fixture in a batch, without its "tests" or "fixtures" prefix.
+     *
+     * @param batchPath The path, prefixed with "tests" or "fixtures"
+     * @return The parsed path, or an empty Optional if it is not valid
+     */
+    private static Optional<Path> parseBatchPath(final String batchPath) {
+        final String path = StringUtils.removeStart(StringUtils.trimToEmpty(batchPath), "/");
+        return Path.parse(StringUtils.substringAfter(path, "/"));
+    }
+    
+    /**
+     * Run a single path of a batch.
+     *
+     * @param batchPath The path, prefixed with "tests" or "fixtures"
+     * @param options The options to run the path with
+     * @return The result of running the path
+     */
+    private BatchResult runBatchPath(final String batchPath, final RunOptions options) {
+        final String requestedPath = StringUtils.defaultString(batchPath);
+        final String path = StringUtils.removeStart(requestedPath.trim(), "/");
+        final String prefix = StringUtils.substringBefore(path, "/");
+        final String runPath = StringUtils.substringAfter(path, "/");
+        
+        try {
+            switch (prefix) {
+                case JUnitHttpServlet.TESTS_PREFIX:
+                    return new BatchResult(requestedPath, SUCCESS_STATUS, 
+                                           Optional.of(runTest(runPath, options)), 
+                                           Optional.empty());
+                case JUnitHttpServlet.FIXTURES_PREFIX:
+                    return new BatchResult(requestedPath, SUCCESS_STATUS, 
+                                           Optional.of(runFixture(runPath, options)), 
+                                           Optional.empty());
+                default:
+                    throw new InvalidPathException(requestedPath);
+            }
+        }
+        catch (MethodNotFoundException | InvalidPathException e) {
+            return new BatchResult(requestedPath, NOT_FOUND_STATUS, Optional.empty(), 
+                                   Optional.of("Not found: " + requestedPath));
+        }
+        catch (AdmissionException e) {
+            return new BatchResult(requestedPath, TOO_MANY_REQUESTS_STATUS, Optional.empty(),
+                                   Optional.of("Too many requests: " + e.getMessage()));
+        }
+        catch (RunnerException e) {
+            return new BatchResult(requestedPath, INTERNAL_ERROR_STATUS, Optional.empty(),
+                                   Optional.of("Internal error: " + e.getMessage()));
+        }
     }
 }
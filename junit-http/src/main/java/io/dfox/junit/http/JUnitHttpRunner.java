@@ -15,75 +15,332 @@
  */
 package io.dfox.junit.http;
 
-import io.dfox.junit.http.api.Failure;
 import io.dfox.junit.http.api.MethodNotFoundException;
 import io.dfox.junit.http.api.RunnerException;
 import io.dfox.junit.http.util.Collectors;
 import io.dfox.junit.http.api.Summary;
+import io.dfox.junit.http.api.NotRun;
 import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Result;
 import io.dfox.junit.http.api.Success;
-import static io.dfox.junit.http.util.TestUtils.toStringList;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 import org.junit.AfterClass;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.Description;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
-import io.dfox.junit.http.api.Error;
+import org.junit.runners.model.Statement;
 
 /**
  * JUnitHttpRunner runs JUnit tests and converts the result to the HTTP API model.
+ * 
+ * Runs may be limited in time with {@link RunOptions}. A test or fixture which runs past its 
+ * limit is interrupted and reported as a {@link io.dfox.junit.http.api.Timeout}, and once the 
+ * time for the whole run is up no further tests are started, so the Summary holds the results 
+ * of everything which ran.
+ * 
+ * The tests of a class annotated with {@link Parallel}, or of a run whose options ask for it, are 
+ * run in parallel on a fork-join pool when the whole class is run. Each test reports to its own
+ * listener, and the results are passed on in the order of the tests, so the Summary is the same 
+ * as when the tests run one after another.
+ * 
+ * The runner may build the statement which runs each test once, as a {@link TestPlan}, instead 
+ * of assembling it from the annotations of the test class on every run.
+ * 
+ * Runs of a whole class may select a subset of its tests with a {@link TestSelector}. The 
+ * categories of the tests are indexed when the runner is created, so selecting tests does not 
+ * read their annotations again.
+ * 
+ * The time each test, fixture and whole run of the class takes is recorded in a 
+ * {@link TimingStore}, and tests run in parallel are started longest first.
+ * 
+ * A fail-fast run of a class stops at its first failed test. The tests which have not started 
+ * by then, and the tests running in parallel, which are interrupted, are reported as 
+ * {@link NotRun}.
  */
 public class JUnitHttpRunner extends BlockJUnit4ClassRunner {
     
     private final ImmutableMap<Path, FrameworkMethod> testMethods;
-    private final ImmutableMap<Path, FrameworkMethod> fixtureMethods;
+    private final ImmutableSetMultimap<String, Path> categoryIndex;
+    private final ImmutableMap<Path, MethodInvoker> fixtureMethods;
+    private final ImmutableList<MethodInvoker> beforeClassMethods;
+    private final ImmutableList<MethodInvoker> afterClassMethods;
+    private final ImmutableMap<FrameworkMethod, TestPlan> testPlans;
+    private final IdempotentFixtures idempotentFixtures = new IdempotentFixtures();
+    private final ForkJoinPool pool;
+    private final TimingStore timings;
+    private final boolean parallel;
+    private final boolean coalesced;
     
     /**
-     * Create a new JUnitHttpRunner.
+     * Create a new JUnitHttpRunner which runs tests in parallel on the common fork-join pool.
      * 
      * @param testClass The class containing the JUnit tests.
      * 
      * @throws InitializationError If the runner cannot be initialized
      */
     public JUnitHttpRunner(final Class<?> testClass) throws InitializationError {
+        this(testClass, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Create a new JUnitHttpRunner.
+     * 
+     * @param testClass The class containing the JUnit tests.
+     * @param pool The pool to run tests on when they are run in parallel
+     * 
+     * @throws InitializationError If the runner cannot be initialized
+     */
+    public JUnitHttpRunner(final Class<?> testClass, final ForkJoinPool pool) 
+        throws InitializationError {
+        
+        this(testClass, pool, false);
+    }
+    
+    /**
+     * Create a new JUnitHttpRunner.
+     * 
+     * @param testClass The class containing the JUnit tests.
+     * @param pool The pool to run tests on when they are run in parallel
+     * @param cacheStatements Whether the statement which runs each test is built once and 
+     * reused, for tests which have no rules, expected exception or timeout
+     * 
+     * @throws InitializationError If the runner cannot be initialized
+     */
+    public JUnitHttpRunner(final Class<?> testClass, final ForkJoinPool pool, 
+                           final boolean cacheStatements) throws InitializationError {
+        
+        this(testClass, pool, cacheStatements, new TimingStore());
+    }
+    
+    /**
+     * Create a new JUnitHttpRunner.
+     * 
+     * @param testClass The class containing the JUnit tests.
+     * @param pool The pool to run tests on when they are run in parallel
+     * @param cacheStatements Whether the statement which runs each test is built once and 
+     * reused, for tests which have no rules, expected exception or timeout
+     * @param timings The store to record the time each test and fixture takes in, and to 
+     * schedule parallel tests by
+     * 
+     * @throws InitializationError If the runner cannot be initialized
+     */
+    public JUnitHttpRunner(final Class<?> testClass, final ForkJoinPool pool, 
+                           final boolean cacheStatements, final TimingStore timings) 
+        throws InitializationError {
+        
         super(testClass);
+        this.pool = pool;
+        this.timings = timings;
+        this.parallel = testClass.isAnnotationPresent(Parallel.class);
+        this.coalesced = testClass.isAnnotationPresent(Coalesce.class);
 
         testMethods = getChildren()
             .stream()
             .collect(Collectors.toImmutableMap(m -> new Path(testClass.getName(), m.getName()), 
                 UnaryOperator.identity()
             ));
+        categoryIndex = createCategoryIndex();
         
         fixtureMethods = getTestClass().getAnnotatedMethods(Fixture.class)
             .stream()
             .collect(Collectors.toImmutableMap(m -> new Path(testClass.getName(), m.getName()), 
-                UnaryOperator.identity()
+                MethodInvoker::of
+            ));
+        
+        beforeClassMethods = createInvokers(BeforeClass.class);
+        afterClassMethods = createInvokers(AfterClass.class);
+        
+        if (cacheStatements) {
+            testPlans = createTestPlans();
+        }
+        else {
+            testPlans = ImmutableMap.of();
+        }
+    }
+    
+    /**
+     * Build the plans of the tests whose statements can be reused. If the test class has any 
+     * rules, no plans are built, since rules are applied to each instance of the class.
+     * 
+     * @return The plans, by test method
+     */
+    private ImmutableMap<FrameworkMethod, TestPlan> createTestPlans() {
+        if (!getTestClass().getAnnotatedFields(Rule.class).isEmpty() 
+            || !getTestClass().getAnnotatedMethods(Rule.class).isEmpty()) {
+            return ImmutableMap.of();
+        }
+        
+        final ImmutableList<MethodInvoker> befores = createInvokers(Before.class);
+        final ImmutableList<MethodInvoker> afters = createInvokers(After.class);
+        return testMethods.values()
+            .stream()
+            .filter(JUnitHttpRunner::isPlainTest)
+            .collect(Collectors.toImmutableMap(UnaryOperator.identity(), method -> 
+                new TestPlan(this::createTest, befores, MethodInvoker.of(method), afters)
             ));
     }
     
     /**
-     * Invoke the methods on the test class with the specified annotations. 
+     * @param method A test method
+     * @return True if the test does not expect an exception or have a timeout
+     */
+    private static boolean isPlainTest(final FrameworkMethod method) {
+        final Test annotation = method.getAnnotation(Test.class);
+        return annotation.expected() == Test.None.class && annotation.timeout() == 0;
+    }
+    
+    /**
+     * Index the tests by the simple and fully qualified names of their categories, including the 
+     * supertypes of each category, so a test is found under any category it belongs to.
+     * 
+     * @return The paths of the tests by category name
+     */
+    private ImmutableSetMultimap<String, Path> createCategoryIndex() {
+        final ImmutableSetMultimap.Builder<String, Path> index = ImmutableSetMultimap.builder();
+        final Category classCategory = getTestClass().getAnnotation(Category.class);
+        
+        testMethods.forEach((path, method) -> {
+            final List<Class<?>> categories = new ArrayList<>();
+            if (classCategory != null) {
+                categories.addAll(Arrays.asList(classCategory.value()));
+            }
+            final Category methodCategory = method.getAnnotation(Category.class);
+            if (methodCategory != null) {
+                categories.addAll(Arrays.asList(methodCategory.value()));
+            }
+            
+            for (Class<?> category : categories) {
+                indexCategory(index, category, path);
+            }
+        });
+        return index.build();
+    }
+    
+    /**
+     * Add a test to the index under a category and all of its supertypes.
+     * 
+     * @param index The index to add to
+     * @param category The category
+     * @param path The path of the test
+     */
+    private static void indexCategory(final ImmutableSetMultimap.Builder<String, Path> index, 
+                                      final Class<?> category, final Path path) {
+        
+        index.put(category.getName(), path);
+        index.put(category.getSimpleName(), path);
+        if (category.getSuperclass() != null && category.getSuperclass() != Object.class) {
+            indexCategory(index, category.getSuperclass(), path);
+        }
+        for (Class<?> supertype : category.getInterfaces()) {
+            indexCategory(index, supertype, path);
+        }
+    }
+    
+    /**
+     * Choose the tests of the class to run.
+     * 
+     * @param selector The selector of the run
+     * @return The paths of the selected tests, in the order they are run in
+     */
+    public ImmutableList<Path> getTestPaths(final TestSelector selector) {
+        if (selector.isAll()) {
+            return testMethods.keySet().asList();
+        }
+        else {
+            return testMethods.keySet()
+                .stream()
+                .filter(path -> isSelected(path, selector))
+                .collect(Collectors.toImmutableList());
+        }
+    }
+    
+    /**
+     * @param path The path of a test in the class
+     * @param selector The selector of the run
+     * @return True if the selector selects the test
+     */
+    private boolean isSelected(final Path path, final TestSelector selector) {
+        return selector.matchesName(path.getName().get())
+            && selector.inShard(path)
+            && (selector.getCategories().isEmpty() 
+                || selector.getCategories().stream()
+                       .anyMatch(category -> categoryIndex.containsEntry(category, path)));
+    }
+    
+    /**
+     * @return The paths of the tests of the class, in the order they are run in
+     */
+    public ImmutableList<Path> getTestPaths() {
+        return testMethods.keySet().asList();
+    }
+    
+    /**
+     * Report the tests a run with the selector would run as not run, without running them. 
+     * Ignored tests are left out, since a run reports them as ignored rather than running them.
+     * 
+     * @param selector The selector of the run
+     * @return The summary of the tests, in the order they are run in
+     */
+    public Summary notRun(final TestSelector selector) {
+        final Summary.Builder builder = Summary.builder();
+        getTestPaths(selector)
+            .stream()
+            .filter(path -> !isIgnored(testMethods.get(path)))
+            .forEach(path -> builder.addResult(new NotRun(path.getGrouping(), 
+                                                          path.getName().get())));
+        return builder.build();
+    }
+    
+    /**
+     * Create the invokers of the methods on the test class with the specified annotation.
+     * 
+     * @param annotation The annotation of the methods
+     * @return The invokers, in the order JUnit runs the methods in
+     */
+    private ImmutableList<MethodInvoker> createInvokers(
+        final Class<? extends Annotation> annotation) {
+        
+        return getTestClass().getAnnotatedMethods(annotation)
+            .stream()
+            .map(MethodInvoker::of)
+            .collect(Collectors.toImmutableList());
+    }
+    
+    /**
+     * Invoke the static methods on the test class with the specified annotation. 
      * 
      * @param annotation The annotation the methods to invoke are annotated with
+     * @param methods The invokers of the methods
      * @throws RunnerException If any of the methods throws an exception
      */
-    private void invokeMethods(final Class<? extends Annotation> annotation) 
-        throws RunnerException {
+    private static void invokeMethods(final Class<? extends Annotation> annotation,
+                                      final List<MethodInvoker> methods) throws RunnerException {
         
-        List<FrameworkMethod> methods = getTestClass().getAnnotatedMethods(annotation);
-        for (FrameworkMethod method : methods) {
+        for (MethodInvoker method : methods) {
             try {
-                method.invokeExplosively(null);
+                method.invoke(null);
             }
             catch (Throwable e) {
                 throw new RunnerException("Error invoking @" + annotation.getSimpleName() 
-                                              + " method: " + method.getName(), e);
+                                              + " method: " + method.getMethod().getName(), e);
             }
         }
     }
@@ -94,7 +351,7 @@ public class JUnitHttpRunner extends BlockJUnit4ClassRunner {
      * @throws RunnerException If any of the methods throw an exception
      */
     public void invokeBeforeClassMethods() throws RunnerException {
-        invokeMethods(BeforeClass.class);
+        invokeMethods(BeforeClass.class, beforeClassMethods);
     }
     
     /**
@@ -103,59 +360,101 @@ public class JUnitHttpRunner extends BlockJUnit4ClassRunner {
      * @throws RunnerException If any of the methods throw an exception
      */
     public void invokeAfterClassMethods() throws RunnerException {
-        invokeMethods(AfterClass.class);
+        invokeMethods(AfterClass.class, afterClassMethods);
     }
     
     /**
-     * Run the test(s) at the specified path. If the path name is empty, run all the tests in the 
-     * test class.
+     * Run the fixture(s) at the specified path. If the path name is empty, run all the fixtures
+     * in the test class.
      * 
-     * @param path The path to the test
-     * @return The RunSummary containing the results of the test(s)
+     * @param path The path to the fixture
+     * @return The RunSummary containing the results of the fixture(s)
      */
     public Summary runFixtures(final Path path) {
-
+        return runFixtures(path, RunOptions.defaults());
+    }
+    
+    /**
+     * Run the fixture(s) at the specified path with the specified options. If the path name is 
+     * empty, run all the fixtures in the test class.
+     * 
+     * @param path The path to the fixture
+     * @param options The options of the run
+     * @return The RunSummary containing the results of the fixture(s) which ran
+     */
+    public Summary runFixtures(final Path path, final RunOptions options) {
+        final Deadline deadline = Deadline.start(options);
+        final Summary.Builder builder = Summary.builder();
+        
         if (path.getName().isPresent()) {
-            return runFixture(path);
+            runFixture(builder, path, deadline);
         }
         else {
-            Summary.Builder builder = Summary.builder();
-            fixtureMethods.keySet()
-                          .stream()
-                          .forEach(existingPath -> runFixture(builder, existingPath));
-            return builder.build();
+            for (Path existingPath : fixtureMethods.keySet()) {
+                if (deadline.isExpired()) {
+                    break;
+                }
+                runFixture(builder, existingPath, deadline);
+            }
         }
+        return builder.build();
     }
     
     /**
      * Run the fixture at the specified path.
      * 
-     * @param path The path to the fixture method
      * @param builder The builder to add the result to
+     * @param path The path to the fixture method
+     * @param deadline The deadline of the run
      */
-    private void runFixture(final Summary.Builder builder, final Path path) {
+    private void runFixture(final Summary.Builder builder, final Path path, 
+                            final Deadline deadline) {
         
-        final FrameworkMethod method = fixtureMethods.get(path);
+        final MethodInvoker method = fixtureMethods.get(path);
         if (method == null) {
             throw new MethodNotFoundException(path);
         }
+        
+        final Fixture annotation = method.getMethod().getAnnotation(Fixture.class);
+        if (annotation.idempotent()) {
+            builder.addResult(idempotentFixtures.run(path, annotation.windowSeconds(), 
+                                                     () -> invokeFixture(path, method, deadline)));
+        }
         else {
-            try {
-                method.invokeExplosively(createTest());
-                builder.addResult(new Success(path.getGrouping(), path.getName().get()));
-            }
-            catch (Throwable e) {
-                final Error error = new Error(
-                    e.getClass().getName(),
-                    Optional.ofNullable(e.getMessage())
-                );
-                builder.addResult(new Failure(
-                    path.getGrouping(), 
-                    path.getName().get(),
-                    error,
-                    toStringList(e.getStackTrace())
-                ));
-            }
+            builder.addResult(invokeFixture(path, method, deadline));
+        }
+    }
+    
+    /**
+     * Invoke a fixture method on a new instance of the test class.
+     * 
+     * @param path The path to the fixture method
+     * @param method The fixture method
+     * @param deadline The deadline of the run
+     * @return The result of the fixture
+     */
+    private Result invokeFixture(final Path path, final MethodInvoker method, 
+                                 final Deadline deadline) {
+        final long start = System.nanoTime();
+        try {
+            final Object test = createTest();
+            deadline.limit(new Statement() {
+                @Override
+                public void evaluate() throws Throwable {
+                    method.invoke(test);
+                }
+            }).evaluate();
+            return new Success(path.getGrouping(), path.getName().get());
+        }
+        catch (Throwable e) {
+            return JunitHttpRunListener.createFailure(
+                path.getGrouping(), 
+                path.getName().get(),
+                e
+            );
+        }
+        finally {
+            timings.record(path, System.nanoTime() - start);
         }
     }
     
@@ -166,27 +465,105 @@ public class JUnitHttpRunner extends BlockJUnit4ClassRunner {
      * @return The summary of the result of running the fixtures
      */
     public Summary runFixture(final Path path) {
+        return runFixture(path, RunOptions.defaults());
+    }
+    
+    /**
+     * Run the fixture at the specified path with the specified options.
+     * 
+     * @param path The path to the fixture method
+     * @param options The options of the run
+     * @return The summary of the result of running the fixtures
+     */
+    public Summary runFixture(final Path path, final RunOptions options) {
         Summary.Builder builder = Summary.builder();
-        runFixture(builder, path);
+        runFixture(builder, path, Deadline.start(options));
         return builder.build();
     }
     
     /**
-     * Run the specified test using the specified notifier.
+     * @return True if the test class is annotated with {@link Coalesce}, so concurrent identical
+     * runs of its tests may be shared
+     */
+    public boolean isCoalesced() {
+        return coalesced;
+    }
+    
+    /**
+     * Get the time the successful result of running the test(s) at the specified path may be 
+     * cached for, as given by the {@link CacheResult} annotation of the test method, or of the 
+     * test class.
      * 
-     * @param notifier The notifier to capture results from the test
-     * @param testPath The path to the test(s)
-     * @throws MethodNotFoundException If the test(s) cannot be found
+     * @param path The path to the test(s)
+     * @return The time in seconds, or {@link RunOptions#NO_MAX_AGE} if the result is not cached
      */
-    private void runTest(final RunNotifier notifier, final Path testPath) 
-        throws MethodNotFoundException {
+    public long getResultMaxAgeSeconds(final Path path) {
+        CacheResult annotation = null;
+        if (path.getName().isPresent() && testMethods.containsKey(path)) {
+            annotation = testMethods.get(path).getAnnotation(CacheResult.class);
+        }
+        if (annotation == null) {
+            annotation = getTestClass().getAnnotation(CacheResult.class);
+        }
+        
+        if (annotation == null) {
+            return RunOptions.NO_MAX_AGE;
+        }
+        else {
+            return annotation.maxAgeSeconds();
+        }
+    }
+    
+    /**
+     * Run the specified test, passing its results to the consumer. If the run has already 
+     * failed, or fails while the test is running, the test is reported as not run.
+     * 
+     * @param testPath The path to the test
+     * @param deadline The deadline of the run
+     * @param failFast The FailFast of the run
+     * @param consumer The consumer to pass the results to
+     * @throws MethodNotFoundException If the test cannot be found
+     */
+    private void runTest(final Path testPath, final Deadline deadline, final FailFast failFast,
+                         final Consumer<Result> consumer) throws MethodNotFoundException {
         
         final FrameworkMethod method = testMethods.get(testPath);
         if (method == null) {
             throw new MethodNotFoundException(testPath);
         }
+        
+        if (!failFast.start()) {
+            consumer.accept(new NotRun(testPath.getGrouping(), testPath.getName().get()));
+            return;
+        }
+        
+        final List<Result> results = new ArrayList<>();
+        final long start = System.nanoTime();
+        final FailFast.Cancellation cancellation = failFast.cancellation();
+        final RunNotifier notifier = new RunNotifier();
+        notifier.addListener(new JunitHttpRunListener(failFast.watch(results::add)));
+        final Description description = describeChild(method);
+        if (isIgnored(method)) {
+            notifier.fireTestIgnored(description);
+        }
         else {
-            runChild(method, notifier);
+            Statement statement = testPlans.get(method);
+            if (statement == null) {
+                statement = methodBlock(method);
+            }
+            // The guard goes inside the limit, so the thread the limit runs the statement on is
+            // the one interrupted when the test is cancelled
+            runLeaf(deadline.limit(cancellation.guard(statement)), description, notifier);
+        }
+        
+        if (!cancellation.isCancelled()) {
+            if (!isIgnored(method)) {
+                timings.record(testPath, System.nanoTime() - start);
+            }
+            results.forEach(consumer);
+        }
+        else {
+            consumer.accept(new NotRun(testPath.getGrouping(), testPath.getName().get()));
         }
     }
     
@@ -198,17 +575,119 @@ public class JUnitHttpRunner extends BlockJUnit4ClassRunner {
      * @return The RunSummary containing the results of the test(s)
      */
     public Summary runTests(final Path path) {
-        final JunitHttpRunListener listener = new JunitHttpRunListener();
+        return runTests(path, RunOptions.defaults());
+    }
+    
+    /**
+     * Run the test(s) at the specified path with the specified options. If the path name is 
+     * empty, run all the tests in the test class.
+     * 
+     * @param path The path to the test
+     * @param options The options of the run
+     * @return The RunSummary containing the results of the test(s) which ran
+     */
+    public Summary runTests(final Path path, final RunOptions options) {
+        final Summary.Builder builder = Summary.builder();
+        runTests(path, options, builder::addResult);
+        return builder.build();
+    }
+    
+    /**
+     * Run the test(s) at the specified path, passing each result to the consumer as soon as the
+     * test finishes. If the path name is empty, run all the tests in the test class.
+     * 
+     * @param path The path to the test
+     * @param consumer The consumer to pass the results to
+     * @throws MethodNotFoundException If the test(s) cannot be found
+     */
+    public void runTests(final Path path, final Consumer<Result> consumer) 
+        throws MethodNotFoundException {
         
-        final RunNotifier notifier = new RunNotifier();
-        notifier.addListener(listener);
+        runTests(path, RunOptions.defaults(), consumer);
+    }
+    
+    /**
+     * Run the test(s) at the specified path with the specified options, passing each result to 
+     * the consumer as soon as the test finishes. If the path name is empty, run all the tests in
+     * the test class which are chosen by the selector of the options. A named test which is not
+     * chosen by the selector is not run. The time a run of every test in the class takes is
+     * recorded under the path of the class, unless the run was cut short by its timeout.
+     * 
+     * @param path The path to the test
+     * @param options The options of the run
+     * @param consumer The consumer to pass the results to
+     * @throws MethodNotFoundException If the test(s) cannot be found
+     */
+    public void runTests(final Path path, final RunOptions options, 
+                         final Consumer<Result> consumer) throws MethodNotFoundException {
+        
+        runTests(path, options, FailFast.of(options), consumer);
+    }
+    
+    /**
+     * Run the test(s) at the specified path with the specified options, stopping when the
+     * FailFast stops, which may be shared with the runs of other classes.
+     * 
+     * @param path The path to the test
+     * @param options The options of the run
+     * @param failFast The FailFast of the run
+     * @param consumer The consumer to pass the results to
+     * @throws MethodNotFoundException If the test(s) cannot be found
+     * @see #runTests(Path, RunOptions, Consumer)
+     */
+    void runTests(final Path path, final RunOptions options, final FailFast failFast,
+                  final Consumer<Result> consumer) throws MethodNotFoundException {
+        
+        final Deadline deadline = Deadline.start(options);
         
         if (path.getName().isPresent()) {
-            runTest(notifier, path);
+            if (!testMethods.containsKey(path) || isSelected(path, options.getSelector())) {
+                runTest(path, deadline, failFast, consumer);
+            }
         }
         else {
-            testMethods.keySet().stream().forEach(existingPath -> runTest(notifier, existingPath));
+            final long start = System.nanoTime();
+            if (parallel || options.isParallelTests()) {
+                runTestsInParallel(getTestPaths(options.getSelector()), deadline, failFast, 
+                                   consumer);
+            }
+            else {
+                for (Path existingPath : getTestPaths(options.getSelector())) {
+                    if (deadline.isExpired()) {
+                        break;
+                    }
+                    runTest(existingPath, deadline, failFast, consumer);
+                }
+            }
+            if (options.getSelector().isAll() && !failFast.hasFailed() 
+                && !deadline.isExpired()) {
+                timings.record(path, System.nanoTime() - start);
+            }
         }
-        return listener.getTestRun();
+    }
+    
+    /**
+     * Run tests of the test class in parallel on the pool, starting the tests which have taken
+     * the longest before first. The results of each test are collected separately, and passed to
+     * the consumer in the order of the tests once the test and all of the tests before it have 
+     * finished. Tests which have not started by the deadline are not run.
+     * 
+     * @param paths The paths of the tests to run
+     * @param deadline The deadline of the run
+     * @param failFast The FailFast of the run
+     * @param consumer The consumer to pass the results to
+     */
+    private void runTestsInParallel(final List<Path> paths, final Deadline deadline, 
+                                    final FailFast failFast, final Consumer<Result> consumer) {
+        
+        LongestFirst.<Path, List<Result>>submit(pool, timings, paths, Optional::of, 
+            existingPath -> {
+                final List<Result> results = new ArrayList<>();
+                if (!deadline.isExpired()) {
+                    runTest(existingPath, deadline, failFast, results::add);
+                }
+                return results;
+            })
+            .joinInOrder(results -> results.forEach(consumer));
     }
 }
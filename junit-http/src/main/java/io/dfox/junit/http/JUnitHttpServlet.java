@@ -15,28 +15,69 @@
  */
 package io.dfox.junit.http;
 
+import io.dfox.junit.http.api.AdmissionException;
+import io.dfox.junit.http.api.CoordinatedSummary;
+import io.dfox.junit.http.api.Discovery;
 import io.dfox.junit.http.api.MethodNotFoundException;
 import io.dfox.junit.http.api.InvalidPathException;
 import io.dfox.junit.http.api.RunnerException;
 import io.dfox.junit.http.api.Summary;
-import static io.dfox.junit.http.util.TestUtils.JSON_MAPPER;
-import com.fasterxml.jackson.databind.JsonNode;
+import io.dfox.junit.http.util.ContentEncoding;
+import io.dfox.junit.http.util.WireFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.Validate;
 
 /**
  * The JUnitHttpServlet runs tests via a REST API and returns their results as JSON.
  * 
  * Tests are requested via paths with the format /&lt;test class&gt;/[&lt;test method&gt;]
+ * 
+ * Several tests and fixtures can be run with a single POST to /batch. The body is a JSON array of
+ * paths, each prefixed with "tests" or "fixtures", and the paths are run in order unless the
+ * "parallel" parameter is true.
+ * 
+ * Responses are JSON by default, or Smile or CBOR when the Accept header asks for
+ * application/x-jackson-smile or application/cbor. Batch bodies may use the same formats, as
+ * given by their Content-Type.
+ * 
+ * Responses are compressed with gzip or deflate when the Accept-Encoding header of the
+ * request allows it. Test data documents are compressed once and the compressed bytes are reused.
+ * 
+ * If the Accept header of a test request asks for application/x-ndjson or text/event-stream, each
+ * result is written and flushed as soon as the test finishes instead of returning a Summary.
+ *
+ * When {@link Configuration#ASYNC_ENABLED} is set, tests and fixtures are run on a dedicated,
+ * bounded executor so the container thread is returned to its pool while they run. Requests
+ * which arrive when the executor queue is full are rejected with a 503.
+ * 
+ * Runs which the application's admission limits do not let start in time are rejected with a 
+ * 429 and a Retry-After header. GET /stats/admission returns the admission statistics.
+ * 
+ * The runners of the test classes in {@link Configuration#WARMUP_PACKAGES} are created in the 
+ * background when the servlet starts. GET /ready returns a 503 until they have been created, and 
+ * a 200 afterwards.
  */
-@WebServlet("/")
+@WebServlet(urlPatterns = "/", asyncSupported = true)
 public class JUnitHttpServlet extends HttpServlet {
 
     private static final long serialVersionUID = 1L;
@@ -44,50 +85,295 @@ public class JUnitHttpServlet extends HttpServlet {
     public static final String FIXTURES_PREFIX = "fixtures";
     public static final String TESTS_PREFIX = "tests";
     public static final String DATA_PREFIX = "data";
+    public static final String BATCH_PREFIX = "batch";
+    public static final String COORDINATE_PREFIX = "coordinate";
+    public static final String STATS_PREFIX = "stats";
+    public static final String READY_PREFIX = "ready";
+    public static final String ADMISSION_STATS = "admission";
+    public static final String RUNNER_STATS = "runners";
+    public static final String PARALLEL_PARAMETER = "parallel";
+    public static final String PARALLEL_TESTS_PARAMETER = "parallelTests";
+    public static final String FAIL_FAST_PARAMETER = "failFast";
+    public static final String SHARD_PARAMETER = "shard";
+    public static final String TIMEOUT_PARAMETER = "timeout";
+    public static final String TEST_TIMEOUT_PARAMETER = "testTimeout";
+    public static final String MAX_AGE_PARAMETER = "maxAge";
+    public static final String CATEGORY_PARAMETER = "category";
+    public static final String NAME_PARAMETER = "name";
     private static final String CONTENT_TYPE = "Content-Type";
-    private static final String APPLICATION_JSON = "application/json";
+    private static final String ACCEPT = "Accept";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String VARY = "Vary";
+    private static final String ETAG = "ETag";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY_ETAG = "*";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String SHARD_SEPARATOR = "/";
+    private static final int BAD_REQUEST_STATUS = 400;
     private static final int NOT_FOUND_STATUS = 404;
+    private static final int TOO_MANY_REQUESTS_STATUS = 429;
+    private static final int NOT_MODIFIED_STATUS = 304;
     private static final int INTERNAL_ERROR_STATUS = 500;
+    private static final int SERVICE_UNAVAILABLE_STATUS = 503;
     private static final int SUCCESS_STATUS = 200;
     private static final String UTF_8 = "UTF-8";
+    private static final long EXECUTOR_KEEP_ALIVE_SECONDS = 60L;
     
     private JUnitHttpApplication application;
+    private Configuration configuration;
+    private ThreadPoolExecutor executor;
     
     @Override
     public void init() {
-        application = new JUnitHttpApplication();
+        final ServletConfig servletConfig = getServletConfig();
+        if (servletConfig == null) {
+            init(Configuration.defaults());
+        }
+        else {
+            init(Configuration.fromParameters(servletConfig::getInitParameter));
+        }
+    }
+    
+    /**
+     * Initialize the servlet with the specified configuration.
+     * 
+     * @param config The configuration to use
+     */
+    void init(final Configuration config) {
+        configuration = config;
+        application = new JUnitHttpApplication(configuration);
+        try {
+            application.loadTimings();
+        }
+        catch (IOException e) {
+            logError("Could not load test timings", e);
+        }
+        application.warmUp((name, e) -> logError("Could not warm up " + name, e));
+        
+        if (configuration.isAsyncEnabled()) {
+            executor = createExecutor(configuration);
+        }
     }
     
     @Override
     public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        try {
+            application.saveTimings();
+        }
+        catch (IOException e) {
+            logError("Could not save test timings", e);
+        }
         application.destroy();
         application = null;
     }
     
     /**
-     * Get the path from the request. The path is the relative path after the specified prefix.
-     * For example, if the full request URI is "/contextName/fixtures/foobars/foo.json", the 
-     * array returned will contain "fixtures", "foobars", and "foo.json".
+     * Create the bounded executor used to run asynchronous requests.
      * 
-     * @param request The request
-     * @return The parsed path
+     * @param config The configuration containing the executor settings
+     * @return The executor
+     */
+    private static ThreadPoolExecutor createExecutor(final Configuration config) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, 
+                                             "junit-http-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        
+        return new ThreadPoolExecutor(
+            config.getAsyncThreads(),
+            config.getAsyncThreads(),
+            EXECUTOR_KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getAsyncQueueSize()),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+    
+    /**
+     * Log an error to the servlet context, if the servlet is running in a container.
+     * 
+     * @param message The message to log
+     * @param e The error
+     */
+    private void logError(final String message, final Throwable e) {
+        if (getServletConfig() != null) {
+            log(message, e);
+        }
+    }
+    
+    /**
+     * Write a plain text message to the response with the specified status.
+     * 
+     * @param response The response to write to
+     * @param status The status of the response
+     * @param message The message to write
+     * @throws IOException If the message cannot be written
+     */
+    private void sendMessage(final HttpServletResponse response, final int status, 
+                             final String message) throws IOException {
+        
+        try (PrintWriter writer = response.getWriter()) {
+            response.setStatus(status);
+            writer.append(message);
+        }
+    }
+    
+    /**
+     * Tell the client the application is too busy to run its request, and when to try again.
+     * 
+     * @param response The response to write to
+     * @param e The exception explaining why the request was not admitted
+     * @throws IOException If the message cannot be written
+     */
+    private void sendTooManyRequests(final HttpServletResponse response, 
+                                     final AdmissionException e) throws IOException {
+        
+        response.setHeader(RETRY_AFTER, 
+                           Integer.toString(configuration.getAdmissionRetryAfterSeconds()));
+        sendMessage(response, TOO_MANY_REQUESTS_STATUS, "Too many requests: " + e.getMessage());
+    }
+    
+    /**
+     * Choose the content encoding of a response and set the headers describing it.
+     * 
+     * @param request The request, used to choose the encoding
+     * @param response The response to set the headers of
+     * @return The encoding the response body must be written with
+     */
+    static ContentEncoding negotiateEncoding(final HttpServletRequest request,
+                                             final HttpServletResponse response) {
+        
+        final ContentEncoding encoding = 
+            ContentEncoding.fromAcceptEncoding(request.getHeader(ACCEPT_ENCODING));
+        response.setHeader(VARY, ACCEPT_ENCODING);
+        if (encoding != ContentEncoding.IDENTITY) {
+            response.setHeader(CONTENT_ENCODING, encoding.getToken());
+        }
+        return encoding;
+    }
+    
+    /**
+     * Choose the format of a response and set the headers describing it.
+     * 
+     * @param request The request, used to choose the format
+     * @param response The response to set the headers of
+     * @return The format the response body must be serialized in
+     */
+    private WireFormat negotiateFormat(final HttpServletRequest request, 
+                                       final HttpServletResponse response) {
+        
+        final WireFormat format = WireFormat.fromAccept(request.getHeader(ACCEPT));
+        response.setHeader(CONTENT_TYPE, format.getContentType());
+        response.addHeader(VARY, ACCEPT);
+        return format;
+    }
+    
+    /**
+     * Serialize the value to the response with a success status, in the format the request asks
+     * for. The value is written directly to the response output stream, compressed if the 
+     * request allows it.
+     * 
+     * @param request The request, used to choose the format and content encoding
+     * @param response The response to write to
+     * @param value The value to serialize
+     * @throws IOException If the value cannot be written
+     */
+    private void sendEntity(final HttpServletRequest request, final HttpServletResponse response, 
+                            final Object value) throws IOException {
+        
+        response.setStatus(SUCCESS_STATUS);
+        final ContentEncoding encoding = negotiateEncoding(request, response);
+        final WireFormat format = negotiateFormat(request, response);
+        
+        try (OutputStream stream = encoding.wrap(response.getOutputStream())) {
+            format.getMapper().writeValue(stream, value);
+        }
+    }
+    
+    /**
+     * Write a test data document to the response with a success status, using the copy of the 
+     * document which is already serialized in the format and encoded with the content encoding 
+     * the request asks for. The response carries the document's entity tag and may be cached 
+     * for {@link Configuration#DATA_MAX_AGE_SECONDS}. If the request's If-None-Match header 
+     * matches the entity tag, only the headers are sent, with a not modified status.
+     * 
+     * @param request The request, used to choose the format and content encoding
+     * @param response The response to write to
+     * @param document The document to write
+     * @throws IOException If the document cannot be written
+     */
+    private void sendDocument(final HttpServletRequest request, final HttpServletResponse response,
+                              final DataDocument document) throws IOException {
+        
+        final ContentEncoding encoding = negotiateEncoding(request, response);
+        final WireFormat format = negotiateFormat(request, response);
+        final String etag = document.getETag(format, encoding);
+        response.setHeader(ETAG, etag);
+        response.setHeader(CACHE_CONTROL, 
+                           "public, max-age=" + configuration.getDataMaxAgeSeconds());
+        
+        if (matchesETag(request.getHeader(IF_NONE_MATCH), etag)) {
+            response.setStatus(NOT_MODIFIED_STATUS);
+            return;
+        }
+        
+        response.setStatus(SUCCESS_STATUS);
+        final byte[] bytes = document.getBytes(format, encoding);
+        response.setContentLength(bytes.length);
+        
+        try (OutputStream stream = response.getOutputStream()) {
+            stream.write(bytes);
+        }
+    }
+    
+    /**
+     * Tell the client whether the application has finished warming up and is ready to run tests
+     * without delay.
+     * 
+     * @param response The response to write to
+     * @throws IOException If the response cannot be written
      */
-    private String[] parsePath(final HttpServletRequest request) {
-        final int prefixLength = request.getContextPath().length() + 1;
-        String path = request.getRequestURI().substring(prefixLength);
-        return path.split("/");
+    private void sendReadiness(final HttpServletResponse response) throws IOException {
+        if (application.isReady()) {
+            sendMessage(response, SUCCESS_STATUS, "Ready");
+        }
+        else {
+            sendMessage(response, SERVICE_UNAVAILABLE_STATUS, "Warming up");
+        }
     }
     
     /**
-     * Join the path components after the first element, which is the dispatch prefix.
+     * Check whether an If-None-Match header matches an entity tag. Weak comparison is used, as 
+     * is required for If-None-Match.
      * 
-     * @param pathComponents The path components
-     * @return The joined path
+     * @param ifNoneMatch The value of the If-None-Match header, which may be null
+     * @param etag The quoted entity tag of the current representation
+     * @return True if the header lists the entity tag or is "*"
      */
-    private String joinPathAfterPrefix(final String[] pathComponents) {
-        final String[] dataPathComponents = 
-                Arrays.copyOfRange(pathComponents, 1, pathComponents.length);
-        return StringUtils.join(dataPathComponents, "/");
+    static boolean matchesETag(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        
+        for (String candidate : ifNoneMatch.split(",")) {
+            final String tag = StringUtils.removeStart(candidate.trim(), WEAK_PREFIX);
+            if (tag.equals(ANY_ETAG) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     @Override
@@ -96,111 +382,331 @@ public class JUnitHttpServlet extends HttpServlet {
         
         response.setCharacterEncoding(UTF_8);
         
-        final String[] pathComponents = parsePath(request);
+        final Route route = Route.of(request);
         
-        if (pathComponents.length < 2 || !pathComponents[0].equals(DATA_PREFIX)) {
+        if (route.getPrefix().equals(READY_PREFIX) && !route.hasPath()) {
+            sendReadiness(response);
+        }
+        else if (route.getPrefix().equals(STATS_PREFIX) 
+                 && route.getPath().equals(ADMISSION_STATS)) {
+            sendEntity(request, response, application.getAdmissionStats());
+        }
+        else if (route.getPrefix().equals(STATS_PREFIX) 
+                 && route.getPath().equals(RUNNER_STATS)) {
+            sendEntity(request, response, application.getRunnerCacheStats());
+        }
+        else if (route.getPrefix().equals(TESTS_PREFIX) && route.hasPath()) {
+            discover(route.getPath(), request, response);
+        }
+        else if (!route.hasPath() || !route.getPrefix().equals(DATA_PREFIX)) {
             response.setStatus(NOT_FOUND_STATUS);
         }
         else {
-            final String path = joinPathAfterPrefix(pathComponents);
-            final JsonNode data = application.getData(path);
-
-            try (PrintWriter writer = response.getWriter()) {
-                if (data == null) {
-                    response.setStatus(NOT_FOUND_STATUS);
-                    writer.append("Data not found: " + path);
-                }
-                else {
-                    response.setStatus(SUCCESS_STATUS);
-                    response.setHeader(CONTENT_TYPE, APPLICATION_JSON);
+            final String path = route.getPath();
+            final Optional<DataDocument> document = application.getDataDocument(path);
 
-                    JSON_MAPPER.writeValue(writer, data);
-                }
+            if (document.isPresent()) {
+                sendDocument(request, response, document.get());
             }
+            else {
+                sendMessage(response, NOT_FOUND_STATUS, "Data not found: " + path);
+            }
+        }
+    }
+    
+    /**
+     * List the tests of the class or package at the specified path, and the tests a run with the
+     * selection of the request would run.
+     * 
+     * @param path The path to the class or package
+     * @param request The request, used to read the selection and choose the format of the 
+     * response
+     * @param response The response to serialize the Discovery to
+     * @throws ServletException If an unrecoverable error occurs
+     * @throws IOException If the response cannot be written
+     */
+    private void discover(final String path, final HttpServletRequest request, 
+                          final HttpServletResponse response) 
+        throws ServletException, IOException {
+        
+        final Discovery discovery;
+        try {
+            discovery = application.discover(path, parseSelector(request));
+        }
+        catch (IllegalArgumentException e) {
+            sendMessage(response, BAD_REQUEST_STATUS, e.getMessage());
+            return;
         }
+        catch (MethodNotFoundException | InvalidPathException e) {
+            sendMessage(response, NOT_FOUND_STATUS, "Test(s) not found: " + path);
+            return;
+        }
+        catch (AdmissionException e) {
+            sendTooManyRequests(response, e);
+            return;
+        }
+        catch (RunnerException e) {
+            sendMessage(response, INTERNAL_ERROR_STATUS, "Internal error: " + e.getMessage());
+            return;
+        }
+        
+        sendEntity(request, response, discovery);
+    }
+    
+    /**
+     * Split a run of the tests at the specified path between the peers of the application, and
+     * merge their results. Applications without peers do not have the route.
+     * 
+     * @param path The path to the class or package to run
+     * @param options The options to run the tests with
+     * @param request The request, used to choose the format of the response
+     * @param response The response to serialize the CoordinatedSummary to
+     * @throws ServletException If an unrecoverable error occurs
+     * @throws IOException If the response cannot be written
+     */
+    private void coordinate(final String path, final RunOptions options, 
+                            final HttpServletRequest request, final HttpServletResponse response)
+        throws ServletException, IOException {
+        
+        if (!application.isCoordinator()) {
+            response.setStatus(NOT_FOUND_STATUS);
+            return;
+        }
+        
+        final CoordinatedSummary summary;
+        try {
+            summary = application.coordinate(path, options);
+        }
+        catch (MethodNotFoundException | InvalidPathException e) {
+            sendMessage(response, NOT_FOUND_STATUS, "Test(s) not found: " + path);
+            return;
+        }
+        
+        sendEntity(request, response, summary);
     }
     
     /**
      * Run the test with the specified path.
      * 
      * @param path The path to the test to run
+     * @param options The options to run the test with
+     * @param request The request, used to choose the format of the response
      * @param response The response to serialize the Summary to
      * @throws ServletException If an unrecoverable error occurs
      * @throws IOException If the test cannot be run
      */
-    private void runTest(final String path, final HttpServletResponse response)
+    private void runTest(final String path, final RunOptions options, 
+                         final HttpServletRequest request, final HttpServletResponse response)
         throws ServletException, IOException {
         
-        try (PrintWriter writer = response.getWriter()) {
-            try {
-                Summary summary = application.runTest(path);
-
-                response.setStatus(SUCCESS_STATUS);
-                response.setHeader(CONTENT_TYPE, APPLICATION_JSON);
-
-                JSON_MAPPER.writeValue(writer, summary);
+        final Optional<ResultStreamWriter.Format> streamFormat = 
+            ResultStreamWriter.Format.fromAccept(request.getHeader(ACCEPT));
+        if (streamFormat.isPresent()) {
+            streamTest(path, options, streamFormat.get(), request, response);
+            return;
+        }
+        
+        final Summary summary;
+        try {
+            summary = application.runTest(path, options);
+        }
+        catch (MethodNotFoundException | InvalidPathException e) {
+            sendMessage(response, NOT_FOUND_STATUS, "Test(s) not found: " + path);
+            return;
+        }
+        catch (AdmissionException e) {
+            sendTooManyRequests(response, e);
+            return;
+        }
+        catch (RunnerException e) {
+            sendMessage(response, INTERNAL_ERROR_STATUS, "Internal error: " + e.getMessage());
+            return;
+        }
+        
+        sendEntity(request, response, summary);
+    }
+    
+    /**
+     * Run the test with the specified path, writing each result to the response as soon as it is
+     * known.
+     * 
+     * @param path The path to the test to run
+     * @param options The options to run the test with
+     * @param format The format to stream the results in
+     * @param request The request, used to choose the content encoding
+     * @param response The response to stream the results to
+     * @throws ServletException If an unrecoverable error occurs
+     * @throws IOException If the test cannot be run
+     */
+    private void streamTest(final String path, final RunOptions options, 
+                            final ResultStreamWriter.Format format,
+                            final HttpServletRequest request, final HttpServletResponse response)
+        throws ServletException, IOException {
+        
+        final ResultStreamWriter stream = new ResultStreamWriter(format, request, response);
+        try {
+            application.streamTest(path, options, stream);
+            stream.finish();
+        }
+        catch (MethodNotFoundException | InvalidPathException e) {
+            if (!stream.isStarted()) {
+                sendMessage(response, NOT_FOUND_STATUS, "Test(s) not found: " + path);
             }
-            catch (MethodNotFoundException | InvalidPathException e) {
-                response.setStatus(NOT_FOUND_STATUS);
-                writer.append("Test(s) not found: " + path);
+        }
+        catch (AdmissionException e) {
+            if (!stream.isStarted()) {
+                sendTooManyRequests(response, e);
             }
-            catch (RunnerException e) {
-                response.setStatus(INTERNAL_ERROR_STATUS);
-                writer.append("Internal error: " + e.getMessage());
+        }
+        catch (RunnerException e) {
+            if (!stream.isStarted()) {
+                sendMessage(response, INTERNAL_ERROR_STATUS, "Internal error: " + e.getMessage());
             }
         }
+        finally {
+            stream.close();
+        }
     }
     
     /**
      * Run the fixture at the specified path.
      * 
      * @param path The path to the fixture to run
+     * @param options The options to run the fixture with
+     * @param request The request, used to choose the format of the response
      * @param response The response to serialize the Summary to
      * @throws ServletException If an unrecoverable error occurs
      * @throws IOException If the fixture cannot be run
      */
-    private void runFixture(final String path, final HttpServletResponse response)
+    private void runFixture(final String path, final RunOptions options, 
+                            final HttpServletRequest request, final HttpServletResponse response)
         throws ServletException, IOException {
         
-        try (PrintWriter writer = response.getWriter()) {
-            try {
-                Summary summary = application.runFixture(path);
-
-                response.setStatus(SUCCESS_STATUS);
-                response.setHeader(CONTENT_TYPE, APPLICATION_JSON);
-
-                JSON_MAPPER.writeValue(writer, summary);
-            }
-            catch (MethodNotFoundException | InvalidPathException e) {
-                response.setStatus(NOT_FOUND_STATUS);
-                writer.append("Fixture(s) not found: " + path);
-            }
-            catch (RunnerException e) {
-                response.setStatus(INTERNAL_ERROR_STATUS);
-                writer.append("Internal error: " + e.getMessage());
-            }
+        final Summary summary;
+        try {
+            summary = application.runFixture(path, options);
+        }
+        catch (MethodNotFoundException | InvalidPathException e) {
+            sendMessage(response, NOT_FOUND_STATUS, "Fixture(s) not found: " + path);
+            return;
+        }
+        catch (AdmissionException e) {
+            sendTooManyRequests(response, e);
+            return;
+        }
+        catch (RunnerException e) {
+            sendMessage(response, INTERNAL_ERROR_STATUS, "Internal error: " + e.getMessage());
+            return;
+        }
+        
+        sendEntity(request, response, summary);
+    }
+    
+    /**
+     * Run the batch of tests and fixtures in the body of the request.
+     * 
+     * @param options The options to run each path with
+     * @param request The request containing the array of paths to run
+     * @param response The response to serialize the BatchSummary to
+     * @throws ServletException If an unrecoverable error occurs
+     * @throws IOException If the batch cannot be read or run
+     */
+    private void runBatch(final RunOptions options, final HttpServletRequest request, 
+                          final HttpServletResponse response)
+        throws ServletException, IOException {
+        
+        final boolean parallel = Boolean.parseBoolean(request.getParameter(PARALLEL_PARAMETER));
+        
+        final List<String> paths;
+        try {
+            final WireFormat format = WireFormat.fromContentType(request.getContentType());
+            paths = Arrays.asList(format.getMapper().readValue(request.getInputStream(), 
+                                                               String[].class));
         }
+        catch (JsonProcessingException e) {
+            sendMessage(response, BAD_REQUEST_STATUS, "Batch must be an array of paths");
+            return;
+        }
+        
+        sendEntity(request, response, application.runBatch(paths, parallel, options));
     }
     
     @Override
     public void doPost(final HttpServletRequest request, final HttpServletResponse response)
         throws ServletException, IOException {
+        
+        if (executor != null && request.isAsyncSupported()) {
+            dispatchAsync(request, response);
+        }
+        else {
+            handlePost(request, response);
+        }
+    }
+    
+    /**
+     * Put the request into asynchronous mode and hand it to the executor. If the executor queue
+     * is full, the request is completed immediately with a 503.
+     * 
+     * @param request The request
+     * @param response The response
+     */
+    private void dispatchAsync(final HttpServletRequest request, 
+                               final HttpServletResponse response) {
+        
+        final AsyncContext context = request.startAsync(request, response);
+        context.setTimeout(configuration.getAsyncTimeoutMillis());
+        
+        final AsyncDispatch dispatch = new AsyncDispatch(context, this::handlePost);
+        context.addListener(dispatch);
+        
+        try {
+            executor.execute(dispatch);
+        }
+        catch (RejectedExecutionException e) {
+            dispatch.reject();
+        }
+    }
+    
+    /**
+     * Run the test or fixture requested by a POST on the calling thread.
+     * 
+     * @param request The request
+     * @param response The response
+     * @throws ServletException If an unrecoverable error occurs
+     * @throws IOException If the response cannot be written
+     */
+    private void handlePost(final HttpServletRequest request, final HttpServletResponse response)
+        throws ServletException, IOException {
 
         response.setCharacterEncoding(UTF_8);
         
-        final String[] pathComponents = parsePath(request);
+        final Route route = Route.of(request);
+        final RunOptions options;
+        try {
+            options = parseRunOptions(request);
+        }
+        catch (IllegalArgumentException e) {
+            sendMessage(response, BAD_REQUEST_STATUS, e.getMessage());
+            return;
+        }
         
-        if (pathComponents.length < 2) {
+        if (!route.hasPath() && route.getPrefix().equals(BATCH_PREFIX)) {
+            runBatch(options, request, response);
+        }
+        else if (!route.hasPath()) {
             response.setStatus(NOT_FOUND_STATUS);
         }
         else {
-            final String path = joinPathAfterPrefix(pathComponents);
-            switch (pathComponents[0]) {
+            final String path = route.getPath();
+            switch (route.getPrefix()) {
                 case TESTS_PREFIX:
-                    runTest(path, response);
+                    runTest(path, options, request, response);
                     break;
                 case FIXTURES_PREFIX:
-                    runFixture(path, response);
+                    runFixture(path, options, request, response);
+                    break;
+                case COORDINATE_PREFIX:
+                    coordinate(path, options, request, response);
                     break;
                 default:
                     response.setStatus(NOT_FOUND_STATUS);
@@ -208,4 +714,112 @@ public class JUnitHttpServlet extends HttpServlet {
             }
         }
     }
+    
+    /**
+     * Read the options of a run from the request parameters. Requests which do not ask for a 
+     * timeout, ask for a timeout of 0, or ask for a longer one than 
+     * {@link Configuration#TIMEOUT_MAX_MILLIS} are limited to the maximum, unless the maximum is
+     * {@link Configuration#UNLIMITED}.
+     * 
+     * @param request The request
+     * @return The options
+     * @throws IllegalArgumentException If a parameter is not valid
+     */
+    private RunOptions parseRunOptions(final HttpServletRequest request) {
+        final RunOptions.Builder builder = RunOptions.builder()
+            .timeoutMillis(limitTimeout(parseDuration(request, TIMEOUT_PARAMETER)))
+            .parallelTests(Boolean.parseBoolean(request.getParameter(PARALLEL_TESTS_PARAMETER)))
+            .failFast(Boolean.parseBoolean(request.getParameter(FAIL_FAST_PARAMETER)))
+            .maxAgeSeconds(parseDuration(request, MAX_AGE_PARAMETER))
+            .selector(parseSelector(request));
+        
+        final long testTimeout = parseDuration(request, TEST_TIMEOUT_PARAMETER);
+        if (testTimeout != RunOptions.NO_TIMEOUT) {
+            builder.testTimeoutMillis(limitTimeout(testTimeout));
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Read the selector of the tests to run from the request parameters. The category parameter 
+     * is a comma separated list of category names, the name parameter is a glob, and the shard 
+     * parameter is the number of the shard and the number of shards, such as "2/3".
+     * 
+     * @param request The request
+     * @return The selector, which selects every test if none of the parameters are set
+     * @throws IllegalArgumentException If a parameter is not valid
+     */
+    private static TestSelector parseSelector(final HttpServletRequest request) {
+        final TestSelector.Builder builder = TestSelector.builder();
+        
+        final String categories = StringUtils.stripToNull(request.getParameter(CATEGORY_PARAMETER));
+        if (categories != null) {
+            Arrays.stream(StringUtils.split(categories, LIST_SEPARATOR))
+                .map(String::trim)
+                .filter(category -> !category.isEmpty())
+                .forEach(builder::category);
+        }
+        
+        final String name = StringUtils.stripToNull(request.getParameter(NAME_PARAMETER));
+        if (name != null) {
+            builder.nameGlob(name);
+        }
+        
+        final String shard = StringUtils.stripToNull(request.getParameter(SHARD_PARAMETER));
+        if (shard != null) {
+            try {
+                builder.shard(
+                    Integer.parseInt(StringUtils.substringBefore(shard, SHARD_SEPARATOR).trim()),
+                    Integer.parseInt(StringUtils.substringAfter(shard, SHARD_SEPARATOR).trim()));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + SHARD_PARAMETER + ": " + shard, e);
+            }
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Read a timeout or maximum age from a request parameter.
+     * 
+     * @param request The request
+     * @param name The name of the parameter
+     * @return The duration, or {@link RunOptions#NO_TIMEOUT} (which is the same as 
+     * {@link RunOptions#NO_MAX_AGE}) if the parameter is not set
+     * @throws IllegalArgumentException If the parameter is not a non-negative number
+     */
+    private static long parseDuration(final HttpServletRequest request, final String name) {
+        final String value = StringUtils.stripToNull(request.getParameter(name));
+        if (value == null) {
+            return RunOptions.NO_TIMEOUT;
+        }
+        
+        try {
+            final long duration = Long.parseLong(value);
+            Validate.isTrue(duration >= 0);
+            return duration;
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value, e);
+        }
+    }
+    
+    /**
+     * Limit a requested timeout to the configured maximum. A request which does not ask for a 
+     * timeout is given the maximum, so that no run is without a limit unless the maximum is 
+     * {@link Configuration#UNLIMITED}.
+     * 
+     * @param timeout The requested timeout, or {@link RunOptions#NO_TIMEOUT}
+     * @return The timeout to use
+     */
+    private long limitTimeout(final long timeout) {
+        final long max = configuration.getTimeoutMaxMillis();
+        if (max != Configuration.UNLIMITED 
+            && (timeout == RunOptions.NO_TIMEOUT || timeout > max)) {
+            return max;
+        }
+        else {
+            return timeout;
+        }
+    }
 }
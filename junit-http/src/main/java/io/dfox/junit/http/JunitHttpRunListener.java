@@ -19,24 +19,61 @@ import io.dfox.junit.http.api.Summary;
 import io.dfox.junit.http.api.Failure;
 import io.dfox.junit.http.api.Error;
 import io.dfox.junit.http.api.Ignored;
+import io.dfox.junit.http.api.Result;
 import io.dfox.junit.http.api.Success;
+import io.dfox.junit.http.api.Timeout;
 import static io.dfox.junit.http.util.TestUtils.toStringList;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import org.junit.runner.Description;
 import org.junit.runner.notification.RunListener;
+import org.junit.runners.model.TestTimedOutException;
 
 /**
- * JunitHttpRunListener listens for test events from JUnit and builds a {@link Summary}.
+ * JunitHttpRunListener listens for test events from JUnit and builds a {@link Summary}, or passes
+ * each result to a consumer as soon as it is known. A listener may be notified from several 
+ * threads at once; results are collected safely, and are passed to a consumer from the thread 
+ * of the test they belong to.
  */
 public class JunitHttpRunListener extends RunListener {
     
     private final Summary.Builder testRunBuilder = Summary.builder();
-    private final Map<Description, Boolean> tests = new HashMap<>();
+    private final Consumer<Result> resultConsumer;
+    private final Map<Description, Boolean> tests = new ConcurrentHashMap<>();
     
+    /**
+     * Create a JunitHttpRunListener which collects the results into the {@link Summary} returned
+     * by {@link #getTestRun()}.
+     */
+    public JunitHttpRunListener() {
+        this.resultConsumer = result -> {
+            synchronized (testRunBuilder) {
+                testRunBuilder.addResult(result);
+            }
+        };
+    }
+    
+    /**
+     * Create a JunitHttpRunListener which passes each result to the specified consumer instead of
+     * collecting them. The listener does not retain any results.
+     * 
+     * @param resultConsumer The consumer to pass the results to
+     */
+    public JunitHttpRunListener(final Consumer<Result> resultConsumer) {
+        this.resultConsumer = resultConsumer;
+    }
+    
+    /**
+     * Build the Summary of the results collected so far.
+     * 
+     * @return The Summary
+     */
     public Summary getTestRun() {
-        return testRunBuilder.build();
+        synchronized (testRunBuilder) {
+            return testRunBuilder.build();
+        }
     }
     
     @Override
@@ -46,8 +83,8 @@ public class JunitHttpRunListener extends RunListener {
 
     @Override
     public void testFinished(final Description description) throws Exception {
-        if (tests.get(description)) {
-            testRunBuilder.addResult(new Success(description.getClassName(), description.getMethodName()));
+        if (Boolean.TRUE.equals(tests.remove(description))) {
+            resultConsumer.accept(new Success(description.getClassName(), description.getMethodName()));
         }
     }
 
@@ -55,22 +92,40 @@ public class JunitHttpRunListener extends RunListener {
     public void testFailure(final org.junit.runner.notification.Failure failure) throws Exception {
         tests.put(failure.getDescription(), Boolean.FALSE);
         
-        final Error error = new Error(
-            failure.getException().getClass().getName(),
-            Optional.ofNullable(failure.getException().getMessage())
-        );
-        
-        testRunBuilder.addResult(new Failure(
+        resultConsumer.accept(createFailure(
             failure.getDescription().getClassName(),
             failure.getDescription().getMethodName(),
-            error,
-            toStringList(failure.getException().getStackTrace())
+            failure.getException()
         ));
     }
     
+    /**
+     * Create the result of a test or fixture which threw an exception. A test which was
+     * interrupted because it ran past its time limit is a {@link Timeout}.
+     * 
+     * @param grouping The group the test belongs to
+     * @param name The name of the test
+     * @param exception The exception the test threw
+     * @return The result
+     */
+    static Failure createFailure(final String grouping, final String name, 
+                                 final Throwable exception) {
+        
+        final Error error = new Error(
+            exception.getClass().getName(),
+            Optional.ofNullable(exception.getMessage())
+        );
+        
+        if (exception instanceof TestTimedOutException) {
+            return new Timeout(grouping, name, error, toStringList(exception.getStackTrace()));
+        }
+        else {
+            return new Failure(grouping, name, error, toStringList(exception.getStackTrace()));
+        }
+    }
+    
     @Override
     public void testIgnored(final Description description) throws Exception {
-        tests.put(description, Boolean.FALSE);
-        testRunBuilder.addResult(new Ignored(description.getClassName(), description.getMethodName()));
+        resultConsumer.accept(new Ignored(description.getClassName(), description.getMethodName()));
     }
 }
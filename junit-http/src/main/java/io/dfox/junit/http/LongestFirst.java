@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * LongestFirst runs a list of items on a pool, starting the item expected to take the longest
+ * whenever a worker becomes free. Every worker takes its next item from the same list, so the
+ * work is packed across the workers greedily, and the slowest items do not start last and set
+ * the time of the whole run. Items which have never run are expected to take the longest, so
+ * without any recorded timings the items start in the order given.
+ *
+ * The results are passed on in the order of the items, not the order they finish in. Waiting
+ * for a result from a worker of the pool lets the pool start another worker in its place.
+ *
+ * @param <T> The type of the items
+ * @param <R> The type of the result of running an item
+ */
+final class LongestFirst<T, R> {
+
+    private final List<T> items;
+    private final Integer[] order;
+    private final List<CompletableFuture<R>> results;
+    private final Function<T, R> task;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param items The items to run
+     * @param order The indexes of the items, in the order they are started in
+     * @param task The function which runs an item
+     */
+    private LongestFirst(final List<T> items, final Integer[] order, final Function<T, R> task) {
+        this.items = items;
+        this.order = order;
+        this.task = task;
+        this.results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Start running the items on the pool, longest first.
+     *
+     * @param <T> The type of the items
+     * @param <R> The type of the result of running an item
+     * @param pool The pool to run the items on
+     * @param timings The timings used to estimate how long each item takes
+     * @param items The items to run
+     * @param pathOf The function which returns the path an item's timing is recorded under, or
+     * an empty Optional if it has none
+     * @param task The function which runs an item
+     * @return The schedule of the items
+     */
+    static <T, R> LongestFirst<T, R> submit(final ForkJoinPool pool, final TimingStore timings,
+                                            final List<T> items,
+                                            final Function<T, Optional<Path>> pathOf,
+                                            final Function<T, R> task) {
+
+        final long[] estimates = new long[items.size()];
+        final Integer[] order = new Integer[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            final OptionalLong estimate = pathOf.apply(items.get(i))
+                .map(timings::estimateNanos)
+                .orElse(OptionalLong.empty());
+            estimates[i] = estimate.orElse(Long.MAX_VALUE);
+            order[i] = i;
+        }
+        // The sort is stable, so items with the same estimate keep their order
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> estimates[i]).reversed());
+
+        final LongestFirst<T, R> schedule = new LongestFirst<>(items, order, task);
+        for (int i = 0; i < items.size(); i++) {
+            pool.execute(schedule::runNext);
+        }
+        return schedule;
+    }
+
+    /**
+     * Run the next item in the schedule, unless it has been cancelled.
+     */
+    private void runNext() {
+        final int index = order[next.getAndIncrement()];
+        final CompletableFuture<R> result = results.get(index);
+        if (!result.isDone()) {
+            try {
+                result.complete(task.apply(items.get(index)));
+            }
+            catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Wait for the result of each item in turn and pass it to the consumer, in the order of the
+     * items. If an item fails, or the consumer throws an exception, the items which have not
+     * started are not run.
+     *
+     * @param consumer The consumer to pass the results to
+     */
+    void joinInOrder(final Consumer<? super R> consumer) {
+        try {
+            for (CompletableFuture<R> result : results) {
+                consumer.accept(join(result));
+            }
+        }
+        finally {
+            results.forEach(result -> result.cancel(false));
+        }
+    }
+
+    /**
+     * Wait for a result, rethrowing the exception of an item which failed.
+     *
+     * @param result The result to wait for
+     * @return The result
+     */
+    private R join(final CompletableFuture<R> result) {
+        awaitDone(result);
+        try {
+            return result.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            else {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Wait until a result is done, through {@link ForkJoinPool#managedBlock}, so a worker of the 
+     * pool which waits for items running on other workers does not take a worker away from 
+     * them. An interrupt does not stop the wait, the same as {@link CompletableFuture#join()}, 
+     * but is kept for the caller.
+     *
+     * @param result The result to wait for
+     */
+    private static void awaitDone(final CompletableFuture<?> result) {
+        final ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                try {
+                    result.get();
+                }
+                catch (ExecutionException | CancellationException e) {
+                    // The failure is rethrown by join
+                }
+                return true;
+            }
+            
+            @Override
+            public boolean isReleasable() {
+                return result.isDone();
+            }
+        };
+        
+        boolean interrupted = false;
+        while (!result.isDone()) {
+            try {
+                ForkJoinPool.managedBlock(blocker);
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
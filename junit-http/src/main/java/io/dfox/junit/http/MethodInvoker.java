@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import org.junit.runners.model.FrameworkMethod;
+
+/**
+ * MethodInvoker invokes a fixture or lifecycle method of a test class. The method is resolved 
+ * to a {@link MethodHandle} once, when the invoker is created, so each call avoids the access 
+ * checks, argument array and exception wrapping of reflective invocation. Methods which cannot 
+ * be resolved to a handle, such as public methods of classes which are not accessible, are 
+ * invoked reflectively instead.
+ */
+final class MethodInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final FrameworkMethod method;
+    private final Optional<MethodHandle> handle;
+
+    /**
+     * @param method The method to invoke
+     * @param handle The handle of the method, taking the target and returning nothing, or an 
+     * empty Optional to invoke the method reflectively
+     */
+    private MethodInvoker(final FrameworkMethod method, final Optional<MethodHandle> handle) {
+        this.method = method;
+        this.handle = handle;
+    }
+
+    /**
+     * Create the invoker of a method.
+     *
+     * @param method The method to invoke
+     * @return The invoker
+     */
+    static MethodInvoker of(final FrameworkMethod method) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method.getMethod());
+            if (Modifier.isStatic(method.getMethod().getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return new MethodInvoker(method, Optional.of(handle.asType(INVOKER_TYPE)));
+        }
+        catch (IllegalAccessException e) {
+            return new MethodInvoker(method, Optional.empty());
+        }
+    }
+
+    public FrameworkMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Invoke the method. Any exception the method throws is thrown as it is.
+     *
+     * @param target The instance of the test class to invoke the method on, or null if the 
+     * method is static
+     * @throws Throwable If the method throws an exception
+     */
+    void invoke(final Object target) throws Throwable {
+        if (handle.isPresent()) {
+            handle.get().invokeExact(target);
+        }
+        else {
+            method.invokeExplosively(target);
+        }
+    }
+}
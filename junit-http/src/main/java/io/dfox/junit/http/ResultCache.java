@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Summary;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResultCache holds the successful summaries of test runs which may be returned again for a
+ * time instead of running the tests. A summary is cached when its run asked for it with a
+ * maximum age, or when the tests are annotated with {@link CacheResult}. A cached summary is 
+ * returned when it is younger than the maximum age of the request, or, for requests which do not
+ * set one, than the age given by the annotation. Failed runs are never cached, so a fix is seen
+ * by the next run. Runs which select a subset of the tests are not cached, and neither are runs
+ * which were cut short by their timeout before every test had reported a result.
+ * 
+ * The cache holds at most the configured number of summaries, evicting the oldest first.
+ */
+final class ResultCache {
+
+    private final int maxSize;
+    private final Map<Path, Entry> entries;
+
+    /**
+     * Entry is a cached summary and the times it may be returned for.
+     */
+    private static final class Entry {
+
+        private final Summary summary;
+        private final long createdNanos;
+        private final long defaultMaxAgeNanos;
+        private final long retentionNanos;
+
+        /**
+         * @param summary The summary, marked as cached
+         * @param defaultMaxAgeNanos The age at which the summary is no longer returned to requests
+         * which do not set a maximum age
+         * @param retentionNanos The age at which the summary is no longer returned to any request
+         */
+        Entry(final Summary summary, final long defaultMaxAgeNanos, final long retentionNanos) {
+            this.summary = summary;
+            this.createdNanos = System.nanoTime();
+            this.defaultMaxAgeNanos = defaultMaxAgeNanos;
+            this.retentionNanos = retentionNanos;
+        }
+
+        /**
+         * @return The time since the summary was cached
+         */
+        long getAgeNanos() {
+            return System.nanoTime() - createdNanos;
+        }
+    }
+
+    /**
+     * @param configuration The configuration containing the size of the cache
+     */
+    ResultCache(final Configuration configuration) {
+        this.maxSize = configuration.getResultsMaxSize();
+        this.entries = new LinkedHashMap<Path, Entry>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return True if the cache may hold any summaries
+     */
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * Get the cached summary of a run, if there is one young enough.
+     *
+     * @param path The path of the run
+     * @param options The options of the run
+     * @return The summary, marked as cached, or an empty Optional if the tests must be run
+     */
+    synchronized Optional<Summary> get(final Path path, final RunOptions options) {
+        final Entry entry = entries.get(path);
+        if (entry == null || !options.getSelector().isAll()) {
+            return Optional.empty();
+        }
+
+        final long age = entry.getAgeNanos();
+        if (age >= entry.retentionNanos) {
+            entries.remove(path);
+            return Optional.empty();
+        }
+
+        long maxAge = entry.defaultMaxAgeNanos;
+        if (options.getMaxAgeSeconds() != RunOptions.NO_MAX_AGE) {
+            maxAge = TimeUnit.SECONDS.toNanos(options.getMaxAgeSeconds());
+        }
+
+        if (age < maxAge) {
+            return Optional.of(entry.summary);
+        }
+        else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cache the summary of a run, if it was successful and complete, and the run or the tests 
+     * ask for it.
+     *
+     * @param path The path of the run
+     * @param options The options of the run
+     * @param defaultMaxAgeSeconds The maximum age given by the {@link CacheResult} annotation of 
+     * the tests, or {@link RunOptions#NO_MAX_AGE}
+     * @param selectedTests The number of tests the run was to run, each of which reports one 
+     * result when it runs
+     * @param summary The summary of the run
+     */
+    synchronized void put(final Path path, final RunOptions options, 
+                          final long defaultMaxAgeSeconds, final int selectedTests, 
+                          final Summary summary) {
+        
+        final long retentionSeconds = Math.max(options.getMaxAgeSeconds(), defaultMaxAgeSeconds);
+        if (isEnabled() && summary.isSuccessful() && retentionSeconds != RunOptions.NO_MAX_AGE
+            && options.getSelector().isAll() && summary.getResults().size() >= selectedTests) {
+            
+            entries.remove(path);
+            entries.put(path, new Entry(summary.asCached(), 
+                                        TimeUnit.SECONDS.toNanos(defaultMaxAgeSeconds),
+                                        TimeUnit.SECONDS.toNanos(retentionSeconds)));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.Result;
+import io.dfox.junit.http.util.ContentEncoding;
+import io.dfox.junit.http.util.HeaderValues;
+import static io.dfox.junit.http.util.TestUtils.JSON_MAPPER;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * ResultStreamWriter writes each test result to the response as soon as it is received and
+ * flushes it, so the client sees results while the rest of the tests are still running. The
+ * status and content type are only set once the first result is written, so errors which occur
+ * before any test is run can still be reported with the appropriate status.
+ */
+class ResultStreamWriter implements Consumer<Result> {
+
+    private static final int SUCCESS_STATUS = 200;
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final ObjectWriter RESULT_WRITER =
+        JSON_MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RESULT_EVENT_START =
+        "event: result\ndata: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] END_EVENT_START =
+        "event: end\ndata: ".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Format is the streaming format of the response.
+     */
+    enum Format {
+
+        /**
+         * Newline delimited JSON, one result per line.
+         */
+        NDJSON("application/x-ndjson"),
+
+        /**
+         * Server-Sent Events, one "result" event per result, followed by an "end" event.
+         */
+        EVENT_STREAM("text/event-stream");
+
+        private final String contentType;
+
+        /**
+         * @param contentType The content type of the format
+         */
+        Format(final String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Choose the streaming format requested by an Accept header. The streaming format with 
+         * the highest quality is chosen, preferring the first listed when qualities are equal. A
+         * format listed with a quality of 0 is not acceptable.
+         *
+         * @param accept The value of the Accept header, which may be null
+         * @return The requested format, or an empty Optional if no streaming format was requested
+         */
+        static Optional<Format> fromAccept(final String accept) {
+            Optional<Format> best = Optional.empty();
+            double bestQuality = 0;
+
+            if (accept != null) {
+                for (String element : accept.split(",")) {
+                    final String[] parameters = element.split(";");
+                    final String mediaType = parameters[0].trim().toLowerCase(Locale.ROOT);
+                    final double quality = HeaderValues.parseQuality(parameters);
+
+                    for (Format format : values()) {
+                        if (format.contentType.equals(mediaType) && quality > bestQuality) {
+                            best = Optional.of(format);
+                            bestQuality = quality;
+                        }
+                    }
+                }
+            }
+
+            return best;
+        }
+    }
+
+    private final Format format;
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private OutputStream stream;
+    private boolean successful = true;
+
+    /**
+     * @param format The format to write the results in
+     * @param request The request, used to choose the content encoding of the response
+     * @param response The response to write the results to
+     */
+    ResultStreamWriter(final Format format, final HttpServletRequest request, 
+                       final HttpServletResponse response) {
+        this.format = format;
+        this.request = request;
+        this.response = response;
+    }
+
+    @Override
+    public void accept(final Result result) {
+        if (result instanceof Failure) {
+            successful = false;
+        }
+
+        try {
+            start();
+            if (format == Format.EVENT_STREAM) {
+                stream.write(RESULT_EVENT_START);
+                RESULT_WRITER.writeValue(stream, result);
+                stream.write(EVENT_END);
+            }
+            else {
+                RESULT_WRITER.writeValue(stream, result);
+                stream.write(NEWLINE);
+            }
+            stream.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finish the stream after the last result has been written.
+     *
+     * @throws IOException If the end of the stream cannot be written
+     */
+    void finish() throws IOException {
+        start();
+        if (format == Format.EVENT_STREAM) {
+            stream.write(END_EVENT_START);
+            RESULT_WRITER.writeValue(stream, new End(successful));
+            stream.write(EVENT_END);
+        }
+        stream.flush();
+    }
+
+    /**
+     * Close the response output stream, if anything has been written to it.
+     *
+     * @throws IOException If the stream cannot be closed
+     */
+    void close() throws IOException {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * @return True if anything has been written to the response
+     */
+    boolean isStarted() {
+        return stream != null;
+    }
+
+    /**
+     * Set the status, content type and content encoding of the response and open its output
+     * stream, if nothing has been written yet. A compressed stream is flushed along with each
+     * result, so compression does not delay them.
+     *
+     * @throws IOException If the output stream cannot be opened
+     */
+    private void start() throws IOException {
+        if (stream == null) {
+            response.setStatus(SUCCESS_STATUS);
+            response.setHeader(CONTENT_TYPE, format.getContentType());
+            final ContentEncoding encoding = JUnitHttpServlet.negotiateEncoding(request, response);
+            stream = encoding.wrap(response.getOutputStream());
+        }
+    }
+
+    /**
+     * End is the data of the event which ends an event stream.
+     */
+    static final class End {
+
+        private final boolean successful;
+
+        /**
+         * @param successful Whether all of the tests in the stream were successful
+         */
+        End(final boolean successful) {
+            this.successful = successful;
+        }
+
+        public boolean isSuccessful() {
+            return successful;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Route is the parsed path of a request: the dispatch prefix, which is the first path component
+ * after the context path, and the relative path after it. For example, if the full request URI
+ * is "/contextName/fixtures/foobars/foo.json", the prefix is "fixtures" and the path is 
+ * "foobars/foo.json". The URI is scanned once, and only the prefix and path are copied out of it.
+ */
+final class Route {
+
+    private static final char SEPARATOR = '/';
+
+    private final String prefix;
+    private final String path;
+
+    /**
+     * @param prefix The dispatch prefix
+     * @param path The path after the prefix, which is empty if there is none
+     */
+    private Route(final String prefix, final String path) {
+        this.prefix = prefix;
+        this.path = path;
+    }
+
+    /**
+     * Parse the route of a request.
+     *
+     * @param request The request
+     * @return The route
+     */
+    static Route of(final HttpServletRequest request) {
+        return parse(request.getRequestURI(), request.getContextPath().length() + 1);
+    }
+
+    /**
+     * Parse a route from a request URI. Trailing separators are ignored.
+     *
+     * @param uri The request URI
+     * @param start The index of the first character after the context path and its separator
+     * @return The route
+     */
+    static Route parse(final String uri, final int start) {
+        int end = uri.length();
+        while (end > start && uri.charAt(end - 1) == SEPARATOR) {
+            end--;
+        }
+        if (start >= end) {
+            return new Route("", "");
+        }
+
+        final int separator = uri.indexOf(SEPARATOR, start);
+        if (separator < 0 || separator >= end) {
+            return new Route(uri.substring(start, end), "");
+        }
+        else {
+            return new Route(uri.substring(start, separator), uri.substring(separator + 1, end));
+        }
+    }
+
+    String getPrefix() {
+        return prefix;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * @return True if the route has a path after its prefix
+     */
+    boolean hasPath() {
+        return !path.isEmpty();
+    }
+}
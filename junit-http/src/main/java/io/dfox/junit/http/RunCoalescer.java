@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Summary;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+
+/**
+ * RunCoalescer shares runs of tests between concurrent requests. While a run of a path is in 
+ * progress, identical requests, for the same path with the same options, wait for it and 
+ * receive its Summary, or its exception, instead of running the tests themselves. Once the run 
+ * finishes, the next request starts a new one.
+ */
+final class RunCoalescer {
+
+    private final ConcurrentMap<Key, CompletableFuture<Summary>> runs = new ConcurrentHashMap<>();
+
+    /**
+     * Key identifies identical runs.
+     */
+    private static final class Key {
+
+        private final Path path;
+        private final RunOptions options;
+        private final int hashCode;
+
+        /**
+         * @param path The path of the run
+         * @param options The options of the run
+         */
+        Key(final Path path, final RunOptions options) {
+            this.path = path;
+            this.options = options;
+            this.hashCode = new HashCodeBuilder().append(path).append(options).toHashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other == null) {
+                return false;
+            }
+            else if (other == this) {
+                return true;
+            }
+            else if (other.getClass() != getClass()) {
+                return false;
+            }
+            else {
+                final Key otherKey = (Key) other;
+                return new EqualsBuilder()
+                    .append(path, otherKey.path)
+                    .append(options, otherKey.options)
+                    .isEquals();
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Wait for a run of the path with the options, if one is in progress.
+     *
+     * @param path The path of the run
+     * @param options The options of the run
+     * @return The Summary of the run, or an empty Optional if no run is in progress
+     */
+    Optional<Summary> join(final Path path, final RunOptions options) {
+        final CompletableFuture<Summary> run = runs.get(new Key(path, options));
+        if (run == null) {
+            return Optional.empty();
+        }
+        else {
+            return Optional.of(join(run));
+        }
+    }
+
+    /**
+     * Run the path with the options, unless an identical run is in progress, in which case wait 
+     * for it instead.
+     *
+     * @param path The path of the run
+     * @param options The options of the run
+     * @param supplier The supplier which runs the tests
+     * @return The Summary of the run
+     */
+    Summary run(final Path path, final RunOptions options, final Supplier<Summary> supplier) {
+        final Key key = new Key(path, options);
+        final CompletableFuture<Summary> run = new CompletableFuture<>();
+        final CompletableFuture<Summary> existing = runs.putIfAbsent(key, run);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            final Summary summary = supplier.get();
+            run.complete(summary);
+            return summary;
+        }
+        catch (RuntimeException | Error e) {
+            run.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            runs.remove(key, run);
+        }
+    }
+
+    /**
+     * Wait for a run, rethrowing the exception it failed with, if any.
+     *
+     * @param run The run
+     * @return The Summary of the run
+     */
+    private static Summary join(final CompletableFuture<Summary> run) {
+        try {
+            return run.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            else {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import org.apache.commons.lang.Validate;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+
+/**
+ * RunOptions holds the options a client may set on a single run of tests or fixtures.
+ */
+public final class RunOptions {
+
+    /**
+     * The timeout value which means there is no limit.
+     */
+    public static final long NO_TIMEOUT = 0L;
+
+    /**
+     * The maximum age which means the results of the run are not cached, unless the test asks
+     * for it with {@link CacheResult}.
+     */
+    public static final long NO_MAX_AGE = 0L;
+
+    private final long timeoutMillis;
+    private final long testTimeoutMillis;
+    private final boolean parallelTests;
+    private final boolean failFast;
+    private final long maxAgeSeconds;
+    private final TestSelector selector;
+
+    /**
+     * A mutable builder for immutable RunOptions.
+     */
+    public static class Builder {
+
+        private long timeoutMillis = NO_TIMEOUT;
+        private long testTimeoutMillis = NO_TIMEOUT;
+        private boolean parallelTests = false;
+        private boolean failFast = false;
+        private long maxAgeSeconds = NO_MAX_AGE;
+        private TestSelector selector = TestSelector.all();
+
+        /**
+         * Create the RunOptions from the state of the Builder.
+         *
+         * @return The RunOptions
+         */
+        public RunOptions build() {
+            return new RunOptions(this);
+        }
+
+        /**
+         * @param timeout The time all of the tests or fixtures of the run may take together, in
+         * milliseconds, or {@link #NO_TIMEOUT}. A test which is still running when the time is up
+         * is interrupted and reported as a timeout, and tests which have not started are not run.
+         * @return This Builder
+         */
+        public Builder timeoutMillis(final long timeout) {
+            Validate.isTrue(timeout >= 0, "timeoutMillis cannot be negative");
+            this.timeoutMillis = timeout;
+            return this;
+        }
+
+        /**
+         * @param timeout The time each test or fixture of the run may take, in milliseconds, or
+         * {@link #NO_TIMEOUT}
+         * @return This Builder
+         */
+        public Builder testTimeoutMillis(final long timeout) {
+            Validate.isTrue(timeout >= 0, "testTimeoutMillis cannot be negative");
+            this.testTimeoutMillis = timeout;
+            return this;
+        }
+
+        /**
+         * @param parallel Whether the tests of a class are run in parallel. Tests of classes
+         * annotated with {@link Parallel} are always run in parallel.
+         * @return This Builder
+         */
+        public Builder parallelTests(final boolean parallel) {
+            this.parallelTests = parallel;
+            return this;
+        }
+
+        /**
+         * @param stop Whether the run stops at the first failed test. Tests which have not 
+         * started are reported as not run, and tests running in parallel are interrupted and 
+         * reported as not run.
+         * @return This Builder
+         */
+        public Builder failFast(final boolean stop) {
+            this.failFast = stop;
+            return this;
+        }
+
+        /**
+         * @param maxAge The age in seconds of a cached result which may be returned instead of 
+         * running the tests, which is also the time the result of this run is cached for, or 
+         * {@link #NO_MAX_AGE}
+         * @return This Builder
+         */
+        public Builder maxAgeSeconds(final long maxAge) {
+            Validate.isTrue(maxAge >= 0, "maxAgeSeconds cannot be negative");
+            this.maxAgeSeconds = maxAge;
+            return this;
+        }
+
+        /**
+         * @param testSelector The selector which chooses the tests of each class to run
+         * @return This Builder
+         */
+        public Builder selector(final TestSelector testSelector) {
+            Validate.notNull(testSelector, "selector cannot be null");
+            this.selector = testSelector;
+            return this;
+        }
+    }
+
+    /**
+     * Create a new Builder.
+     *
+     * @return The Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create RunOptions with the default settings, which place no limits on the run.
+     *
+     * @return The default RunOptions
+     */
+    public static RunOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Create the RunOptions from the state of the Builder.
+     *
+     * @param builder The Builder to copy the state from
+     */
+    private RunOptions(final Builder builder) {
+        timeoutMillis = builder.timeoutMillis;
+        testTimeoutMillis = builder.testTimeoutMillis;
+        parallelTests = builder.parallelTests;
+        failFast = builder.failFast;
+        maxAgeSeconds = builder.maxAgeSeconds;
+        selector = builder.selector;
+    }
+
+    /**
+     * Create a Builder which starts with the state of these RunOptions.
+     *
+     * @return The Builder
+     */
+    public Builder toBuilder() {
+        return builder()
+            .timeoutMillis(timeoutMillis)
+            .testTimeoutMillis(testTimeoutMillis)
+            .parallelTests(parallelTests)
+            .failFast(failFast)
+            .maxAgeSeconds(maxAgeSeconds)
+            .selector(selector);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public long getTestTimeoutMillis() {
+        return testTimeoutMillis;
+    }
+
+    public boolean isParallelTests() {
+        return parallelTests;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public long getMaxAgeSeconds() {
+        return maxAgeSeconds;
+    }
+
+    public TestSelector getSelector() {
+        return selector;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other == null) {
+            return false;
+        }
+        else if (other == this) {
+            return true;
+        }
+        else if (other.getClass() != getClass()) {
+            return false;
+        }
+        else {
+            final RunOptions otherOptions = (RunOptions) other;
+            return new EqualsBuilder()
+                .append(timeoutMillis, otherOptions.timeoutMillis)
+                .append(testTimeoutMillis, otherOptions.testTimeoutMillis)
+                .append(parallelTests, otherOptions.parallelTests)
+                .append(failFast, otherOptions.failFast)
+                .append(maxAgeSeconds, otherOptions.maxAgeSeconds)
+                .append(selector, otherOptions.selector)
+                .isEquals();
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+            .append(timeoutMillis)
+            .append(testTimeoutMillis)
+            .append(parallelTests)
+            .append(failFast)
+            .append(maxAgeSeconds)
+            .append(selector)
+            .toHashCode();
+    }
+}
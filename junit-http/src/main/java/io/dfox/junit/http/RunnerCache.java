@@ -0,0 +1,381 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.MethodNotFoundException;
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.RunnerCacheStats;
+import io.dfox.junit.http.api.RunnerException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.runners.model.InitializationError;
+
+/**
+ * RunnerCache holds a {@link JUnitHttpRunner} for each grouping. Each runner is created, and its
+ * {@literal @}BeforeClass methods run, by the first request for its grouping; concurrent requests
+ * for the same grouping wait for that initialization instead of repeating it, while requests for
+ * other groupings are not blocked by it. Looking up a runner which is already initialized does 
+ * not take any lock.
+ * 
+ * A grouping which fails to initialize is not cached. Requests already waiting for it receive the
+ * failure, and the next request tries to initialize it again.
+ * 
+ * The cache may be bounded in size and in the time a runner may go unused. Runners are leased for
+ * the duration of a run, and only runners which are not leased are evicted: the least recently 
+ * used runners when the cache is too large, and runners which have been idle too long. Evicting a
+ * runner invokes its {@literal @}AfterClass methods, and the next request for its grouping creates
+ * a new runner once they have finished. Evictions are left to {@link #evictExpired()}, which the
+ * application calls from its own thread, so that request threads never pay for the scan or run 
+ * another class's {@literal @}AfterClass methods. Failures of those methods are logged.
+ */
+final class RunnerCache {
+
+    private static final Logger LOGGER = Logger.getLogger(RunnerCache.class.getName());
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long maxIdleNanos;
+    private final ForkJoinPool pool;
+    private final boolean cacheStatements;
+    private final TimingStore timings;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Lease is the use of a runner for the duration of a run. The runner is not evicted while it
+     * is leased.
+     */
+    interface Lease extends AutoCloseable {
+
+        /**
+         * @return The leased runner
+         */
+        JUnitHttpRunner getRunner();
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Entry holds the runner of a grouping and tracks its use.
+     */
+    private static final class Entry {
+
+        private static final int EVICTED = -1;
+
+        private final CompletableFuture<JUnitHttpRunner> runner = new CompletableFuture<>();
+        private final CompletableFuture<Void> closed = new CompletableFuture<>();
+        private final AtomicInteger leases = new AtomicInteger(1);
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        /**
+         * Lease the entry, unless it has been evicted.
+         *
+         * @return True if the entry was leased
+         */
+        boolean lease() {
+            while (true) {
+                final int count = leases.get();
+                if (count == EVICTED) {
+                    return false;
+                }
+                else if (leases.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Return a lease of the entry.
+         */
+        void release() {
+            lastUsedNanos = System.nanoTime();
+            leases.decrementAndGet();
+        }
+
+        /**
+         * @return True if the entry is not leased or evicted
+         */
+        boolean isIdle() {
+            return leases.get() == 0;
+        }
+
+        /**
+         * @return True if the entry has been marked evicted
+         */
+        boolean isEvicted() {
+            return leases.get() == EVICTED;
+        }
+
+        /**
+         * Mark the entry evicted, if it is not leased.
+         *
+         * @return True if the entry was marked evicted by this call
+         */
+        boolean markEvicted() {
+            return leases.compareAndSet(0, EVICTED);
+        }
+    }
+
+    /**
+     * @param configuration The configuration containing the limits of the cache
+     * @param pool The pool the runners run tests on in parallel
+     */
+    RunnerCache(final Configuration configuration, final ForkJoinPool pool) {
+        this(configuration, pool, new TimingStore());
+    }
+
+    /**
+     * @param configuration The configuration containing the limits of the cache
+     * @param pool The pool the runners run tests on in parallel
+     * @param timings The store the runners record the time their tests take in, which outlives
+     * the runners
+     */
+    RunnerCache(final Configuration configuration, final ForkJoinPool pool, 
+                final TimingStore timings) {
+        this.pool = pool;
+        this.timings = timings;
+        this.cacheStatements = configuration.isRunnersCacheStatements();
+        this.maxSize = configuration.getRunnersMaxSize();
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getRunnersMaxIdleMillis());
+    }
+
+    /**
+     * Lease the runner for the grouping of the specified path, initializing it if necessary. The
+     * lease must be closed when the run finishes.
+     *
+     * @param testPath The path of the test to get the runner for
+     * @return The lease of the runner
+     * @throws MethodNotFoundException If no test class exists for the grouping
+     * @throws RunnerException If the runner could not be created
+     */
+    Lease acquire(final Path testPath) throws MethodNotFoundException, RunnerException {
+        final String grouping = testPath.getGrouping();
+
+        while (true) {
+            Entry entry = entries.get(grouping);
+            if (entry == null) {
+                final Entry created = new Entry();
+                entry = entries.putIfAbsent(grouping, created);
+                if (entry == null) {
+                    misses.increment();
+                    initialize(testPath, created);
+                    return lease(testPath, created);
+                }
+            }
+
+            if (entry.lease()) {
+                hits.increment();
+                return lease(testPath, entry);
+            }
+            else {
+                // The runner is being evicted; wait for its @AfterClass methods before replacing it
+                entry.closed.join();
+            }
+        }
+    }
+
+    /**
+     * Evict the runners which have been idle for too long, and the least recently used runners
+     * while the cache is larger than its maximum size. Runners which are leased are not evicted.
+     */
+    void evictExpired() {
+        if (maxIdleNanos > 0) {
+            final long now = System.nanoTime();
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (now - entry.getValue().lastUsedNanos >= maxIdleNanos 
+                    && entry.getValue().markEvicted()) {
+                    
+                    evict(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        if (maxSize != Configuration.UNLIMITED) {
+            while (countLive() > maxSize) {
+                Map.Entry<String, Entry> leastRecentlyUsed = null;
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    if (entry.getValue().isIdle() && (leastRecentlyUsed == null 
+                        || entry.getValue().lastUsedNanos 
+                           - leastRecentlyUsed.getValue().lastUsedNanos < 0)) {
+                        
+                        leastRecentlyUsed = entry;
+                    }
+                }
+
+                if (leastRecentlyUsed == null) {
+                    return;
+                }
+                else if (leastRecentlyUsed.getValue().markEvicted()) {
+                    evict(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries which are not being evicted
+     */
+    private long countLive() {
+        return entries.values().stream().filter(entry -> !entry.isEvicted()).count();
+    }
+
+    /**
+     * Take a snapshot of the statistics of the cache.
+     *
+     * @return The statistics
+     */
+    RunnerCacheStats getStats() {
+        return new RunnerCacheStats(entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Run the {@literal @}AfterClass methods of every initialized runner and empty the cache.
+     *
+     * @throws RunnerException If any of the @AfterClass methods throws an exception
+     */
+    void destroy() throws RunnerException {
+        entries.values().stream()
+            .map(entry -> entry.runner)
+            .filter(runner -> runner.isDone() && !runner.isCompletedExceptionally())
+            .forEach(runner -> runner.join().invokeAfterClassMethods());
+        entries.clear();
+    }
+
+    /**
+     * Wait for the runner of a leased entry and create the lease. If the runner could not be 
+     * created, the entry is released and the failure is thrown.
+     *
+     * @param testPath The path of the test the runner is leased for
+     * @param entry The leased entry
+     * @return The lease
+     * @throws MethodNotFoundException If no test class exists for the grouping
+     * @throws RunnerException If the runner could not be created
+     */
+    private Lease lease(final Path testPath, final Entry entry) 
+        throws MethodNotFoundException, RunnerException {
+        
+        final JUnitHttpRunner runner;
+        try {
+            runner = entry.runner.join();
+        }
+        catch (CompletionException e) {
+            entry.release();
+            if (e.getCause() instanceof MethodNotFoundException) {
+                throw new MethodNotFoundException(testPath);
+            }
+            else if (e.getCause() instanceof RunnerException) {
+                throw (RunnerException) e.getCause();
+            }
+            else {
+                throw e;
+            }
+        }
+
+        return new Lease() {
+            @Override
+            public JUnitHttpRunner getRunner() {
+                return runner;
+            }
+
+            @Override
+            public void close() {
+                entry.release();
+            }
+        };
+    }
+
+    /**
+     * Run the {@literal @}AfterClass methods of an entry which has been marked evicted, remove 
+     * it from the cache, and let requests waiting to replace it continue.
+     *
+     * @param grouping The grouping of the entry
+     * @param entry The entry
+     */
+    private void evict(final String grouping, final Entry entry) {
+        try {
+            if (!entry.runner.isCompletedExceptionally()) {
+                entry.runner.join().invokeAfterClassMethods();
+            }
+        }
+        catch (RunnerException e) {
+            // The runner is discarded whether or not its @AfterClass methods succeed
+            LOGGER.log(Level.WARNING, "Could not evict runner for: " + grouping, e);
+        }
+        finally {
+            entries.remove(grouping, entry);
+            evictions.increment();
+            entry.closed.complete(null);
+        }
+    }
+
+    /**
+     * Create the runner for a grouping on the calling thread and complete its future. If the 
+     * runner cannot be created, the future is completed with the failure and removed from the
+     * cache.
+     *
+     * @param testPath The path of the test the runner is created for
+     * @param entry The entry to complete
+     */
+    private void initialize(final Path testPath, final Entry entry) {
+        try {
+            entry.runner.complete(create(testPath));
+        }
+        catch (RuntimeException | Error e) {
+            entries.remove(testPath.getGrouping(), entry);
+            entry.runner.completeExceptionally(e);
+            entry.closed.complete(null);
+        }
+    }
+
+    /**
+     * Create and initialize the runner for the grouping of the specified path.
+     *
+     * @param testPath The path of the test to create the runner for
+     * @return The runner
+     * @throws MethodNotFoundException If no test class exists for the grouping
+     * @throws RunnerException If the runner could not be created
+     */
+    private JUnitHttpRunner create(final Path testPath) 
+        throws MethodNotFoundException, RunnerException {
+        
+        try {
+            final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            final Class<?> testClass = Class.forName(testPath.getGrouping(), true, classLoader);
+            final JUnitHttpRunner runner = new JUnitHttpRunner(testClass, pool, 
+                                                               cacheStatements, timings);
+            runner.invokeBeforeClassMethods();
+            return runner;
+        }
+        catch (InitializationError e) {
+            throw new RunnerException("Could not initialize runner for: "
+                                         + testPath.getGrouping(), e);
+        }
+        catch (ClassNotFoundException e) {
+            throw new MethodNotFoundException(testPath);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+
+/**
+ * TestPlan is the statement which runs a single test method, built once and reused for every 
+ * run of the test instead of being assembled from the test class's annotations each time. Each
+ * evaluation creates a new instance of the test class, runs the @Before methods, the test and 
+ * the @After methods, with the same semantics as JUnit: the @After methods run even if the test
+ * or an @Before method fails, and all of the failures are reported together.
+ * 
+ * A plan is only built for tests without @Rule fields or methods, an expected exception or a 
+ * timeout; other tests are run with the statement JUnit builds.
+ */
+final class TestPlan extends Statement {
+
+    private final Callable<Object> testFactory;
+    private final ImmutableList<MethodInvoker> befores;
+    private final MethodInvoker test;
+    private final ImmutableList<MethodInvoker> afters;
+
+    /**
+     * @param testFactory The factory of instances of the test class
+     * @param befores The @Before methods, in the order JUnit runs them in
+     * @param test The test method
+     * @param afters The @After methods, in the order JUnit runs them in
+     */
+    TestPlan(final Callable<Object> testFactory, final ImmutableList<MethodInvoker> befores,
+             final MethodInvoker test, final ImmutableList<MethodInvoker> afters) {
+        this.testFactory = testFactory;
+        this.befores = befores;
+        this.test = test;
+        this.afters = afters;
+    }
+
+    @Override
+    public void evaluate() throws Throwable {
+        final Object target = testFactory.call();
+        final List<Throwable> errors = new ArrayList<>();
+        try {
+            for (MethodInvoker before : befores) {
+                before.invoke(target);
+            }
+            test.invoke(target);
+        }
+        catch (Throwable e) {
+            errors.add(e);
+        }
+        finally {
+            for (MethodInvoker after : afters) {
+                try {
+                    after.invoke(target);
+                }
+                catch (Throwable e) {
+                    errors.add(e);
+                }
+            }
+        }
+        MultipleFailureException.assertEmpty(errors);
+    }
+}
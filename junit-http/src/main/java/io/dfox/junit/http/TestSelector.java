@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.apache.commons.lang.Validate;
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
+
+/**
+ * TestSelector chooses a subset of the tests of a class to run, by JUnit category and by a glob
+ * of the test method names. A test is selected if it belongs to any of the categories, or there
+ * are none, and its name matches the glob, if there is one. In a glob, "*" matches any run of 
+ * characters and "?" matches a single character.
+ * 
+ * A selector may also choose one of several shards of the tests, so that instances of the 
+ * application can split a run between them. Shards are numbered from 1, and a test is in shard 
+ * i of n if the hash of its path, as given by {@link String#hashCode()} of 
+ * {@link Path#toString()}, modulo n is i - 1. The hash only depends on the path, so every 
+ * instance assigns a test to the same shard, and every test is in exactly one shard.
+ */
+public final class TestSelector {
+
+    private static final char ANY_CHARACTERS = '*';
+    private static final char ANY_CHARACTER = '?';
+
+    /**
+     * The number of shards of a selector which is not sharded.
+     */
+    public static final int ONE_SHARD = 1;
+
+    private final ImmutableSet<String> categories;
+    private final Optional<String> nameGlob;
+    private final Optional<Pattern> namePattern;
+    private final int shardIndex;
+    private final int shardCount;
+
+    /**
+     * A mutable builder for immutable TestSelectors.
+     */
+    public static class Builder {
+
+        private final ImmutableSet.Builder<String> categories = ImmutableSet.builder();
+        private Optional<String> nameGlob = Optional.empty();
+        private int shardIndex = ONE_SHARD;
+        private int shardCount = ONE_SHARD;
+
+        /**
+         * Create the TestSelector from the state of the Builder.
+         *
+         * @return The TestSelector
+         */
+        public TestSelector build() {
+            return new TestSelector(this);
+        }
+
+        /**
+         * @param category The simple or fully qualified name of a category to select the tests 
+         * of. Tests in a subcategory of it are selected too.
+         * @return This Builder
+         */
+        public Builder category(final String category) {
+            Validate.notEmpty(category, "category cannot be empty");
+            this.categories.add(category);
+            return this;
+        }
+
+        /**
+         * @param glob The glob the names of the selected tests must match
+         * @return This Builder
+         */
+        public Builder nameGlob(final String glob) {
+            Validate.notEmpty(glob, "nameGlob cannot be empty");
+            this.nameGlob = Optional.of(glob);
+            return this;
+        }
+
+        /**
+         * @param index The number of the shard to select, from 1 to the number of shards
+         * @param count The number of shards the tests are split into
+         * @return This Builder
+         */
+        public Builder shard(final int index, final int count) {
+            Validate.isTrue(count >= ONE_SHARD, "shard count must be positive");
+            Validate.isTrue(index >= 1 && index <= count, 
+                            "shard index must be between 1 and the shard count");
+            this.shardIndex = index;
+            this.shardCount = count;
+            return this;
+        }
+    }
+
+    /**
+     * Create a new Builder.
+     *
+     * @return The Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a TestSelector which selects every test.
+     *
+     * @return The TestSelector
+     */
+    public static TestSelector all() {
+        return builder().build();
+    }
+
+    /**
+     * Create the TestSelector from the state of the Builder.
+     *
+     * @param builder The Builder to copy the state from
+     */
+    private TestSelector(final Builder builder) {
+        categories = builder.categories.build();
+        nameGlob = builder.nameGlob;
+        namePattern = nameGlob.map(TestSelector::compileGlob);
+        shardIndex = builder.shardIndex;
+        shardCount = builder.shardCount;
+    }
+
+    /**
+     * Compile a glob into a regular expression.
+     *
+     * @param glob The glob
+     * @return The regular expression which matches the same names as the glob
+     */
+    private static Pattern compileGlob(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c == ANY_CHARACTERS || c == ANY_CHARACTER) {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                if (c == ANY_CHARACTERS) {
+                    regex.append(".*");
+                }
+                else {
+                    regex.append('.');
+                }
+                start = i + 1;
+            }
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    public ImmutableSet<String> getCategories() {
+        return categories;
+    }
+
+    public Optional<String> getNameGlob() {
+        return nameGlob;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return True if the selector selects every test
+     */
+    public boolean isAll() {
+        return categories.isEmpty() && !nameGlob.isPresent() && shardCount == ONE_SHARD;
+    }
+
+    /**
+     * @param path The path of a test
+     * @return True if the test is in the shard of the selector, or it is not sharded
+     */
+    public boolean inShard(final Path path) {
+        return shardCount == ONE_SHARD 
+            || Math.floorMod(path.toString().hashCode(), shardCount) == shardIndex - 1;
+    }
+
+    /**
+     * @param name The name of a test method
+     * @return True if the name matches the glob of the selector, or it has none
+     */
+    public boolean matchesName(final String name) {
+        return !namePattern.isPresent() || namePattern.get().matcher(name).matches();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (other == null) {
+            return false;
+        }
+        else if (other == this) {
+            return true;
+        }
+        else if (other.getClass() != getClass()) {
+            return false;
+        }
+        else {
+            final TestSelector otherSelector = (TestSelector) other;
+            return new EqualsBuilder()
+                .append(categories, otherSelector.categories)
+                .append(nameGlob, otherSelector.nameGlob)
+                .append(shardIndex, otherSelector.shardIndex)
+                .append(shardCount, otherSelector.shardCount)
+                .isEquals();
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+            .append(categories)
+            .append(nameGlob)
+            .append(shardIndex)
+            .append(shardCount)
+            .toHashCode();
+    }
+}
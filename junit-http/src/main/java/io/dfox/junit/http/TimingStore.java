@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import static io.dfox.junit.http.util.TestUtils.JSON_MAPPER;
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * TimingStore records how long tests, fixtures and whole test classes take to run, so that runs
+ * of several of them can start the longest first. Each path keeps a moving average of its run
+ * times, in which the latest run has a quarter of the weight.
+ *
+ * The store belongs to the application rather than to a runner, so timings outlive the eviction
+ * of the runner of their class. It may be saved to a file, and loaded from it when the
+ * application starts again.
+ */
+public final class TimingStore {
+
+    private static final long HISTORY_WEIGHT = 4L;
+    private static final TypeReference<Map<String, Long>> FILE_TYPE =
+        new TypeReference<Map<String, Long>>() { };
+
+    private final ConcurrentMap<Path, Long> averageNanos = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time a run of a path took.
+     *
+     * @param path The path of the test, fixture or test class which ran
+     * @param elapsedNanos The time the run took
+     */
+    public void record(final Path path, final long elapsedNanos) {
+        averageNanos.merge(path, elapsedNanos,
+            (average, latest) -> average + (latest - average) / HISTORY_WEIGHT);
+    }
+
+    /**
+     * Estimate the time a run of a path will take.
+     *
+     * @param path The path of the test, fixture or test class
+     * @return The average of its recorded run times, or an empty OptionalLong if it has not been
+     * run
+     */
+    public OptionalLong estimateNanos(final Path path) {
+        final Long average = averageNanos.get(path);
+        if (average == null) {
+            return OptionalLong.empty();
+        }
+        else {
+            return OptionalLong.of(average);
+        }
+    }
+
+    /**
+     * @return The number of paths with recorded timings
+     */
+    public int size() {
+        return averageNanos.size();
+    }
+
+    /**
+     * Add the timings saved in a file to the store. A file which does not exist holds no timings.
+     * Paths which could not be parsed are skipped.
+     *
+     * @param file The file to load the timings from
+     * @throws IOException If the file exists but could not be read
+     */
+    public void load(final File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+
+        final Map<String, Long> saved = JSON_MAPPER.readValue(file, FILE_TYPE);
+        for (Map.Entry<String, Long> entry : saved.entrySet()) {
+            final Optional<Path> path = Path.parse(entry.getKey());
+            if (path.isPresent() && entry.getValue() != null) {
+                averageNanos.put(path.get(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Save the timings in the store to a file, replacing its contents.
+     *
+     * @param file The file to save the timings to
+     * @throws IOException If the file could not be written
+     */
+    public void save(final File file) throws IOException {
+        final Map<String, Long> saved = new TreeMap<>();
+        averageNanos.forEach((path, nanos) -> saved.put(path.toString(), nanos));
+        JSON_MAPPER.writeValue(file, saved);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+/**
+ * AdmissionStats is a snapshot of the runs the application has admitted, is running, and has
+ * turned away because it was overloaded.
+ */
+public class AdmissionStats {
+
+    private final int running;
+    private final int waiting;
+    private final long admitted;
+    private final long rejected;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+
+    /**
+     * @param running The number of runs in progress
+     * @param waiting The number of runs waiting to be admitted
+     * @param admitted The number of runs admitted since the application started
+     * @param rejected The number of runs rejected since the application started
+     * @param averageWaitMillis The average time admitted runs waited before they started
+     * @param maxWaitMillis The longest time an admitted run waited before it started
+     */
+    public AdmissionStats(final int running, final int waiting, final long admitted, 
+                          final long rejected, final double averageWaitMillis, 
+                          final double maxWaitMillis) {
+        this.running = running;
+        this.waiting = waiting;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getRunning() {
+        return running;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+import java.util.Optional;
+import org.apache.commons.lang.Validate;
+
+/**
+ * BatchResult represents the outcome of running one of the paths in a batch. If the path could
+ * be run, it contains the {@link io.dfox.junit.http.api.Summary} of the run, otherwise it
+ * contains the error which prevented it from being run.
+ */
+public class BatchResult {
+
+    private final String path;
+    private final int status;
+    private final Optional<Summary> summary;
+    private final Optional<String> error;
+
+    /**
+     * @param path The path which was run, including the "tests" or "fixtures" prefix
+     * @param status The HTTP status the path would have returned if it were requested on its own
+     * @param summary The summary of the run, if the path could be run
+     * @param error The error which prevented the path from being run, if it could not be run
+     */
+    public BatchResult(final String path, final int status, final Optional<Summary> summary,
+                       final Optional<String> error) {
+        Validate.notNull(path, "path cannot be null");
+        Validate.notNull(summary, "summary cannot be null");
+        Validate.notNull(error, "error cannot be null");
+
+        this.path = path;
+        this.status = status;
+        this.summary = summary;
+        this.error = error;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Optional<Summary> getSummary() {
+        return summary;
+    }
+
+    public Optional<String> getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return summary.isPresent() && summary.get().isSuccessful();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * BatchSummary represents a batch of test and fixture runs requested together. The results are
+ * in the same order as the paths in the request.
+ */
+public class BatchSummary {
+
+    private final ImmutableList<BatchResult> results;
+
+    /**
+     * A mutable builder for immutable BatchSummaries.
+     */
+    public static class Builder {
+
+        private final ImmutableList.Builder<BatchResult> results = ImmutableList.builder();
+
+        /**
+         * Create the BatchSummary from the state of the Builder.
+         *
+         * @return The BatchSummary
+         */
+        public BatchSummary build() {
+            return new BatchSummary(this);
+        }
+
+        /**
+         * @param result The result to add
+         */
+        public void addResult(final BatchResult result) {
+            results.add(result);
+        }
+    }
+
+    /**
+     * Create a new Builder.
+     *
+     * @return The Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create the BatchSummary from the state of the Builder.
+     *
+     * @param builder The Builder to copy the state from
+     */
+    private BatchSummary(final Builder builder) {
+        results = builder.results.build();
+    }
+
+    public ImmutableList<BatchResult> getResults() {
+        return results;
+    }
+
+    public boolean isSuccessful() {
+        return results.stream().allMatch(BatchResult::isSuccessful);
+    }
+}
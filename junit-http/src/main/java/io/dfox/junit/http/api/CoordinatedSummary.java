@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.lang.Validate;
+
+/**
+ * CoordinatedSummary represents a run of a class or package which was split into shards and run 
+ * by peer instances of the application. The summary holds the results of every shard, in the 
+ * order of the shards, and the nodes describe how each shard was run.
+ */
+public class CoordinatedSummary {
+
+    private final Summary summary;
+    private final ImmutableList<NodeRun> nodes;
+
+    /**
+     * @param summary The merged summary of the shards
+     * @param nodes The runs of the shards, in the order of the shards
+     */
+    public CoordinatedSummary(final Summary summary, final ImmutableList<NodeRun> nodes) {
+        Validate.notNull(summary, "summary cannot be null");
+        Validate.notNull(nodes, "nodes cannot be null");
+
+        this.summary = summary;
+        this.nodes = nodes;
+    }
+
+    public Summary getSummary() {
+        return summary;
+    }
+
+    public ImmutableList<NodeRun> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return True if every test in every shard was successful, and every shard was run
+     */
+    public boolean isSuccessful() {
+        return summary.isSuccessful() 
+            && nodes.stream().noneMatch(node -> node.getError().isPresent());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Discovery lists the tests of a class or package, so that clients can check which tests a run 
+ * covers. Each test is listed by its path, in the format accepted by 
+ * {@link Path#parse(java.lang.String)}.
+ */
+public class Discovery {
+
+    private final ImmutableList<String> tests;
+    private final ImmutableList<String> selected;
+
+    /**
+     * @param tests The paths of all of the tests
+     * @param selected The paths of the tests a run with the same selection, such as the same 
+     * shard, would run
+     */
+    public Discovery(final ImmutableList<String> tests, final ImmutableList<String> selected) {
+        this.tests = tests;
+        this.selected = selected;
+    }
+
+    public ImmutableList<String> getTests() {
+        return tests;
+    }
+
+    public ImmutableList<String> getSelected() {
+        return selected;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+import java.util.Optional;
+import org.apache.commons.lang.Validate;
+
+/**
+ * NodeRun describes how one shard of a coordinated run was run by a peer: which peer ran it, how
+ * many attempts it took, and how long it took. If no peer could run the shard, it contains the
+ * error of the last attempt.
+ */
+public class NodeRun {
+
+    private final String shard;
+    private final String peer;
+    private final int attempts;
+    private final long elapsedMillis;
+    private final Optional<String> error;
+
+    /**
+     * @param shard The shard, such as "2/3"
+     * @param peer The base URL of the peer which ran the shard, or of the last peer tried
+     * @param attempts The number of peers the shard was sent to
+     * @param elapsedMillis The time the shard took, including failed attempts
+     * @param error The error of the last attempt, if no peer could run the shard
+     */
+    public NodeRun(final String shard, final String peer, final int attempts, 
+                   final long elapsedMillis, final Optional<String> error) {
+        Validate.notEmpty(shard, "shard cannot be empty");
+        Validate.notEmpty(peer, "peer cannot be empty");
+        Validate.notNull(error, "error cannot be null");
+
+        this.shard = shard;
+        this.peer = peer;
+        this.attempts = attempts;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+    }
+
+    public String getShard() {
+        return shard;
+    }
+
+    public String getPeer() {
+        return peer;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public Optional<String> getError() {
+        return error;
+    }
+}
@@ -15,24 +15,32 @@
  */
 package io.dfox.junit.http.api;
 
-import io.dfox.junit.http.util.Collectors;
-import com.google.common.collect.ImmutableList;
-import java.util.Arrays;
 import java.util.Optional;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
-import org.apache.commons.lang.builder.EqualsBuilder;
-import org.apache.commons.lang.builder.HashCodeBuilder;
 
 /**
  * RunPath encapsulates the path to a test. For JUnit tests, the grouping is the full canonical 
  * name of the test class, and the name is the test method. If name is empty, the path represents
- * all tests in the test class.
+ * all tests in the test class. A grouping ending in ".*", such as "com.example.*", is a package 
+ * path, which represents all of the test classes in the package and its subpackages.
+ * 
+ * Paths are used as map keys on every request, so the hash code is computed once when the Path
+ * is created.
  */
 public class Path {
     
+    /**
+     * The suffix of the grouping of a package path.
+     */
+    public static final String PACKAGE_SUFFIX = ".*";
+    
+    private static final char SEPARATOR = '/';
+    private static final int HASH_MULTIPLIER = 31;
+    
     private final String grouping;
     private final Optional<String> name;
+    private final int hashCode;
     
     /**
      * Create a TestPath. If name is all whitespace, empty, or null, an empty Optional will be used.
@@ -63,6 +71,7 @@ public class Path {
         
         this.grouping = grouping;
         this.name = name;
+        this.hashCode = HASH_MULTIPLIER * grouping.hashCode() + name.hashCode();
     }
     
     /**
@@ -73,18 +82,36 @@ public class Path {
      * @return The test path or an empty Optional if the path is not valid or could not be parsed
      */
     public static Optional<Path> parse(final String path) {
-        final ImmutableList<String> parts = Arrays.stream(path.split("/"))
-            .map(s -> s.trim())
-            .filter(s -> !s.isEmpty())
-            .collect(Collectors.toImmutableList());
+        String grouping = null;
+        String name = null;
+        
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = path.length();
+            }
+            
+            final String part = path.substring(start, end).trim();
+            if (!part.isEmpty()) {
+                if (grouping == null) {
+                    grouping = part;
+                }
+                else if (name == null) {
+                    name = part;
+                }
+                else {
+                    return Optional.empty();
+                }
+            }
+            start = end + 1;
+        }
         
-        switch (parts.size()) {
-            case 1:
-                return Optional.of(new Path(parts.get(0), Optional.empty()));
-            case 2:
-                return Optional.of(new Path(parts.get(0), Optional.of(parts.get(1))));
-            default:
-                return Optional.empty();
+        if (grouping == null) {
+            return Optional.empty();
+        }
+        else {
+            return Optional.of(new Path(grouping, Optional.ofNullable(name)));
         }
     }
 
@@ -96,6 +123,33 @@ public class Path {
         return name;
     }
     
+    /**
+     * @return True if the grouping is a package rather than a single class
+     */
+    public boolean isPackage() {
+        return grouping.endsWith(PACKAGE_SUFFIX);
+    }
+    
+    /**
+     * @return The name of the package of a package path, or the grouping of any other path
+     */
+    public String getPackageName() {
+        return StringUtils.removeEnd(grouping, PACKAGE_SUFFIX);
+    }
+    
+    /**
+     * @return The path in the format accepted by {@link #parse(java.lang.String)}
+     */
+    @Override
+    public String toString() {
+        if (name.isPresent()) {
+            return grouping + SEPARATOR + name.get();
+        }
+        else {
+            return grouping;
+        }
+    }
+    
     @Override
     public boolean equals(final Object other) {
         if (other == null) { 
@@ -109,18 +163,14 @@ public class Path {
         }
         else {
             Path otherPath = (Path) other;
-            return new EqualsBuilder()
-                .append(grouping, otherPath.grouping)
-                .append(name, otherPath.name)
-                .isEquals();
+            return hashCode == otherPath.hashCode
+                && grouping.equals(otherPath.grouping)
+                && name.equals(otherPath.name);
         }
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder()
-            .append(grouping)
-            .append(name)
-            .toHashCode();
+        return hashCode;
     }
 }
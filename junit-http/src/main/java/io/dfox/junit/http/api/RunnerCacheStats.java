@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+/**
+ * RunnerCacheStats is a snapshot of the use of the cache of test runners.
+ */
+public class RunnerCacheStats {
+
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * @param size The number of runners in the cache
+     * @param hits The number of requests which found their runner in the cache
+     * @param misses The number of requests which had to create their runner
+     * @param evictions The number of runners which have been evicted from the cache
+     */
+    public RunnerCacheStats(final int size, final long hits, final long misses, 
+                            final long evictions) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+}
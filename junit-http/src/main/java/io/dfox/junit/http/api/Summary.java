@@ -15,15 +15,18 @@
  */
 package io.dfox.junit.http.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.google.common.collect.ImmutableList;
 
 /**
  * Summary represents a full test run. Depending on the {@link io.dfox.junit.http.api.Path},
- * this could represent one or more tests. 
+ * this could represent one or more tests. A Summary which was returned from the result cache 
+ * instead of running the tests is marked as cached.
  */
 public class Summary {
     
     private final ImmutableList<Result> results;
+    private final boolean cached;
     
     /**
      * A mutable builder for immutable TestRuns.
@@ -64,13 +67,40 @@ public class Summary {
      * @param builder The Builder to copy the state from
      */
     private Summary(final Builder builder) {
-        results = builder.results.build();
+        this(builder.results.build(), false);
+    }
+    
+    /**
+     * @param results The results
+     * @param cached Whether the results were returned from the cache
+     */
+    private Summary(final ImmutableList<Result> results, final boolean cached) {
+        this.results = results;
+        this.cached = cached;
+    }
+    
+    /**
+     * Create a copy of this Summary which is marked as cached.
+     * 
+     * @return The cached Summary
+     */
+    public Summary asCached() {
+        return new Summary(results, true);
     }
     
     public ImmutableList<Result> getResults() {
         return results;
     }
     
+    /**
+     * @return True if the results were returned from the cache instead of running the tests. 
+     * The property is only serialized when it is true.
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public boolean isCached() {
+        return cached;
+    }
+    
     public boolean isSuccessful() {
         return results.stream().noneMatch(e -> e instanceof Failure);
     }
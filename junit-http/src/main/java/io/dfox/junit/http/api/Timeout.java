@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.api;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Timeout represents a test which was interrupted because it ran past its time limit. It is a
+ * kind of {@link Failure}, so a Summary containing one is not successful.
+ */
+public class Timeout extends Failure {
+
+    /**
+     * @param grouping The group the test belongs to. For JUnit tests, this is the test class name.
+     * @param name The name of the test. For JUnit tests, this is the test method name.
+     * @param error The timeout error, which describes the limit the test ran past
+     * @param stackTrace The stack of the test at the point it was interrupted
+     */
+    public Timeout(final String grouping, final String name, final Error error,
+                   final ImmutableList<String> stackTrace) {
+        super(grouping, name, error, stackTrace);
+    }
+}
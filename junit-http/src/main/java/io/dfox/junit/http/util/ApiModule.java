@@ -0,0 +1,337 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import io.dfox.junit.http.api.Error;
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.Ignored;
+import io.dfox.junit.http.api.NotRun;
+import io.dfox.junit.http.api.Result;
+import io.dfox.junit.http.api.Success;
+import io.dfox.junit.http.api.Summary;
+import io.dfox.junit.http.api.Timeout;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * ApiModule registers hand-written serializers for {@link io.dfox.junit.http.api.Summary} and
+ * the results it contains. They write each field directly to the JsonGenerator, so serializing a
+ * Summary does not need bean introspection or the Optional and collection serializers. The output
+ * is identical to the bean serialization of the same classes.
+ * 
+ * A Summary can also be read back, so the summaries returned by other instances of the 
+ * application can be merged.
+ */
+public class ApiModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create the module with all of the API serializers registered.
+     */
+    public ApiModule() {
+        super(ApiModule.class.getSimpleName());
+
+        addSerializer(Summary.class, new SummarySerializer());
+        addSerializer(Success.class, new ResultSerializer<>(Success.class));
+        addSerializer(Ignored.class, new ResultSerializer<>(Ignored.class));
+        addSerializer(NotRun.class, new ResultSerializer<>(NotRun.class));
+        addSerializer(Failure.class, new FailureSerializer());
+        addSerializer(Error.class, new ErrorSerializer());
+        addDeserializer(Summary.class, new SummaryDeserializer());
+    }
+
+    /**
+     * Write the fields common to all results, other than the type.
+     *
+     * @param result The result to write
+     * @param generator The generator to write to
+     * @throws IOException If the fields cannot be written
+     */
+    private static void writeResultFields(final Result result, final JsonGenerator generator)
+        throws IOException {
+
+        generator.writeStringField("grouping", result.getGrouping());
+        generator.writeStringField("name", result.getName());
+    }
+
+    /**
+     * Write a {@link io.dfox.junit.http.api.Result} using the serializer registered for its
+     * class, falling back to bean serialization for results this module does not know about.
+     *
+     * @param result The result to write
+     * @param generator The generator to write to
+     * @param provider The provider to find serializers with
+     * @throws IOException If the result cannot be written
+     */
+    private static void writeResult(final Result result, final JsonGenerator generator,
+                                    final SerializerProvider provider) throws IOException {
+
+        if (result instanceof Success || result instanceof Ignored || result instanceof NotRun) {
+            generator.writeStartObject();
+            writeResultFields(result, generator);
+            generator.writeStringField("type", result.getType());
+            generator.writeEndObject();
+        }
+        else if (result instanceof Failure) {
+            writeFailure((Failure) result, generator);
+        }
+        else {
+            provider.defaultSerializeValue(result, generator);
+        }
+    }
+
+    /**
+     * Write a {@link io.dfox.junit.http.api.Failure}.
+     *
+     * @param failure The failure to write
+     * @param generator The generator to write to
+     * @throws IOException If the failure cannot be written
+     */
+    private static void writeFailure(final Failure failure, final JsonGenerator generator)
+        throws IOException {
+
+        generator.writeStartObject();
+        writeResultFields(failure, generator);
+        generator.writeFieldName("error");
+        writeError(failure.getError(), generator);
+        generator.writeArrayFieldStart("trace");
+        for (String element : failure.getTrace()) {
+            generator.writeString(element);
+        }
+        generator.writeEndArray();
+        generator.writeStringField("type", failure.getType());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write an {@link io.dfox.junit.http.api.Error}.
+     *
+     * @param error The error to write
+     * @param generator The generator to write to
+     * @throws IOException If the error cannot be written
+     */
+    private static void writeError(final Error error, final JsonGenerator generator)
+        throws IOException {
+
+        generator.writeStartObject();
+        generator.writeStringField("name", error.getName());
+        generator.writeStringField("message", error.getMessage().orElse(null));
+        generator.writeEndObject();
+    }
+
+    /**
+     * SummarySerializer writes a {@link io.dfox.junit.http.api.Summary}.
+     */
+    static class SummarySerializer extends StdSerializer<Summary> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Create the serializer.
+         */
+        SummarySerializer() {
+            super(Summary.class);
+        }
+
+        @Override
+        public void serialize(final Summary summary, final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+            for (Result result : summary.getResults()) {
+                writeResult(result, generator, provider);
+            }
+            generator.writeEndArray();
+            if (summary.isCached()) {
+                generator.writeBooleanField("cached", true);
+            }
+            generator.writeBooleanField("successful", summary.isSuccessful());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * ResultSerializer writes results which have no fields other than the common ones.
+     *
+     * @param <T> The type of result
+     */
+    static class ResultSerializer<T extends Result> extends StdSerializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param type The type of result
+         */
+        ResultSerializer(final Class<T> type) {
+            super(type);
+        }
+
+        @Override
+        public void serialize(final T result, final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+
+            writeResult(result, generator, provider);
+        }
+    }
+
+    /**
+     * FailureSerializer writes a {@link io.dfox.junit.http.api.Failure}.
+     */
+    static class FailureSerializer extends StdSerializer<Failure> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Create the serializer.
+         */
+        FailureSerializer() {
+            super(Failure.class);
+        }
+
+        @Override
+        public void serialize(final Failure failure, final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+
+            writeFailure(failure, generator);
+        }
+    }
+
+    /**
+     * ErrorSerializer writes an {@link io.dfox.junit.http.api.Error}.
+     */
+    static class ErrorSerializer extends StdSerializer<Error> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Create the serializer.
+         */
+        ErrorSerializer() {
+            super(Error.class);
+        }
+
+        @Override
+        public void serialize(final Error error, final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+
+            writeError(error, generator);
+        }
+    }
+
+    /**
+     * SummaryDeserializer reads a {@link io.dfox.junit.http.api.Summary} written by the
+     * {@link SummarySerializer}.
+     */
+    static class SummaryDeserializer extends StdDeserializer<Summary> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Create the deserializer.
+         */
+        SummaryDeserializer() {
+            super(Summary.class);
+        }
+
+        @Override
+        public Summary deserialize(final JsonParser parser, final DeserializationContext context)
+            throws IOException {
+
+            final JsonNode node = parser.getCodec().readTree(parser);
+            final Summary.Builder builder = Summary.builder();
+            for (JsonNode result : node.path("results")) {
+                builder.addResult(readResult(parser, result));
+            }
+
+            if (node.path("cached").asBoolean()) {
+                return builder.build().asCached();
+            }
+            else {
+                return builder.build();
+            }
+        }
+
+        /**
+         * Read a result of the type given by its "type" field.
+         *
+         * @param parser The parser the result is read from, used to report errors
+         * @param node The result
+         * @return The result
+         * @throws JsonMappingException If the type of the result is not known
+         */
+        private static Result readResult(final JsonParser parser, final JsonNode node)
+            throws JsonMappingException {
+
+            final String grouping = node.path("grouping").asText();
+            final String name = node.path("name").asText();
+            final String type = node.path("type").asText();
+            switch (type) {
+                case "success":
+                    return new Success(grouping, name);
+                case "ignored":
+                    return new Ignored(grouping, name);
+                case "notrun":
+                    return new NotRun(grouping, name);
+                case "failure":
+                    return new Failure(grouping, name, readError(node.path("error")), 
+                                       readTrace(node.path("trace")));
+                case "timeout":
+                    return new Timeout(grouping, name, readError(node.path("error")), 
+                                       readTrace(node.path("trace")));
+                default:
+                    throw new JsonMappingException(parser, "Unknown result type: " + type);
+            }
+        }
+
+        /**
+         * @param node An error
+         * @return The error
+         */
+        private static Error readError(final JsonNode node) {
+            final JsonNode message = node.path("message");
+            if (message.isTextual()) {
+                return new Error(node.path("name").asText(), Optional.of(message.asText()));
+            }
+            else {
+                return new Error(node.path("name").asText(), Optional.empty());
+            }
+        }
+
+        /**
+         * @param node A stack trace
+         * @return The elements of the stack trace
+         */
+        private static ImmutableList<String> readTrace(final JsonNode node) {
+            final ImmutableList.Builder<String> trace = ImmutableList.builder();
+            for (JsonNode element : node) {
+                trace.add(element.asText());
+            }
+            return trace.build();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import com.google.common.collect.ImmutableList;
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Enumeration;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * ClassScanner finds the names of the top level classes in a package and its subpackages, from
+ * directories and jar files on the class path. Classes are found by their file names only; they
+ * are not loaded.
+ */
+public final class ClassScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String FILE_PROTOCOL = "file";
+    private static final String JAR_PROTOCOL = "jar";
+    private static final char INNER_CLASS_SEPARATOR = '$';
+    private static final char INVALID_NAME_CHARACTER = '-';
+    private static final char PACKAGE_SEPARATOR = '.';
+    private static final char RESOURCE_SEPARATOR = '/';
+
+    /**
+     * ClassScanner cannot be instantiated.
+     */
+    private ClassScanner() { }
+
+    /**
+     * Find the classes in a package and its subpackages.
+     *
+     * @param classLoader The class loader to search
+     * @param packageName The name of the package, such as "com.example.tests"
+     * @return The fully qualified names of the classes, in sorted order
+     * @throws IOException If the class path cannot be read
+     */
+    public static ImmutableList<String> findClasses(final ClassLoader classLoader, 
+                                                    final String packageName) throws IOException {
+
+        final String resourcePath = packageName.replace(PACKAGE_SEPARATOR, RESOURCE_SEPARATOR);
+        final SortedSet<String> classNames = new TreeSet<>();
+
+        final Enumeration<URL> resources = classLoader.getResources(resourcePath);
+        while (resources.hasMoreElements()) {
+            final URL resource = resources.nextElement();
+            if (FILE_PROTOCOL.equals(resource.getProtocol())) {
+                findClasses(toFile(resource), packageName, classNames);
+            }
+            else if (JAR_PROTOCOL.equals(resource.getProtocol())) {
+                findClasses(resource.openConnection(), resourcePath, classNames);
+            }
+        }
+
+        return ImmutableList.copyOf(classNames);
+    }
+
+    /**
+     * Find the classes in a directory of the class path and its subdirectories.
+     *
+     * @param directory The directory of the package
+     * @param packageName The name of the package
+     * @param classNames The set to add the names of the classes to
+     */
+    private static void findClasses(final File directory, final String packageName,
+                                    final SortedSet<String> classNames) {
+
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            final String name = file.getName();
+            if (file.isDirectory()) {
+                findClasses(file, packageName + PACKAGE_SEPARATOR + name, classNames);
+            }
+            else if (isTopLevelClass(name)) {
+                classNames.add(packageName + PACKAGE_SEPARATOR 
+                               + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    /**
+     * Find the classes of a package in a jar file.
+     *
+     * @param connection The connection to the package's entry in the jar file
+     * @param resourcePath The resource path of the package, such as "com/example/tests"
+     * @param classNames The set to add the names of the classes to
+     * @throws IOException If the jar file cannot be read
+     */
+    private static void findClasses(final URLConnection connection, final String resourcePath,
+                                    final SortedSet<String> classNames) throws IOException {
+
+        if (!(connection instanceof JarURLConnection)) {
+            return;
+        }
+
+        final JarURLConnection jarConnection = (JarURLConnection) connection;
+        jarConnection.setUseCaches(false);
+        final String prefix = resourcePath + RESOURCE_SEPARATOR;
+
+        try (JarFile jar = jarConnection.getJarFile()) {
+            final Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                final String simpleName = name.substring(name.lastIndexOf(RESOURCE_SEPARATOR) + 1);
+                if (name.startsWith(prefix) && isTopLevelClass(simpleName)) {
+                    classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length())
+                                       .replace(RESOURCE_SEPARATOR, PACKAGE_SEPARATOR));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param fileName The name of a file, without its directory
+     * @return True if the file is the class file of a top level class, rather than an inner 
+     * class or a package-info or module-info file
+     */
+    private static boolean isTopLevelClass(final String fileName) {
+        return fileName.endsWith(CLASS_SUFFIX) 
+            && fileName.indexOf(INNER_CLASS_SEPARATOR) < 0
+            && fileName.indexOf(INVALID_NAME_CHARACTER) < 0;
+    }
+
+    /**
+     * @param resource A file URL
+     * @return The file
+     * @throws IOException If the URL is not a valid file URL
+     */
+    private static File toFile(final URL resource) throws IOException {
+        try {
+            return new File(resource.toURI());
+        }
+        catch (URISyntaxException e) {
+            throw new IOException("Invalid class path URL: " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ContentEncoding is an HTTP content coding which responses can be compressed with.
+ */
+public enum ContentEncoding {
+
+    /**
+     * The gzip format.
+     */
+    GZIP("gzip") {
+        @Override
+        public OutputStream wrap(final OutputStream stream) throws IOException {
+            return new GZIPOutputStream(stream, true);
+        }
+    },
+
+    /**
+     * The zlib format.
+     */
+    DEFLATE("deflate") {
+        @Override
+        public OutputStream wrap(final OutputStream stream) throws IOException {
+            return new DeflaterOutputStream(stream, true);
+        }
+    },
+
+    /**
+     * No compression.
+     */
+    IDENTITY("identity") {
+        @Override
+        public OutputStream wrap(final OutputStream stream) {
+            return stream;
+        }
+    };
+
+    private static final String ANY = "*";
+    private static final double NOT_LISTED = -1;
+
+    private final String token;
+
+    /**
+     * @param token The name of the coding used in the Accept-Encoding and Content-Encoding headers
+     */
+    ContentEncoding(final String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Wrap a stream so that everything written to it is encoded. Flushing the wrapped stream
+     * flushes everything written so far, and closing it finishes the encoding and closes the
+     * underlying stream.
+     *
+     * @param stream The stream to write the encoded bytes to
+     * @return The stream to write the unencoded bytes to
+     * @throws IOException If the stream cannot be wrapped
+     */
+    public abstract OutputStream wrap(OutputStream stream) throws IOException;
+
+    /**
+     * Encode an array of bytes.
+     *
+     * @param bytes The bytes to encode
+     * @return The encoded bytes
+     */
+    public byte[] encode(final byte[] bytes) {
+        if (this == IDENTITY) {
+            return bytes;
+        }
+        else {
+            final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            try (OutputStream stream = wrap(encoded)) {
+                stream.write(bytes);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return encoded.toByteArray();
+        }
+    }
+
+    /**
+     * Choose the encoding to use for a response from the Accept-Encoding header of the request.
+     * The acceptable coding with the highest quality is chosen, preferring gzip over deflate when
+     * they are equal. A "*" gives its quality to the codings which are not listed by name, so a
+     * coding listed with q=0 is never chosen, whatever quality "*" has.
+     *
+     * @param acceptEncoding The value of the Accept-Encoding header, which may be null
+     * @return The encoding to use
+     */
+    public static ContentEncoding fromAcceptEncoding(final String acceptEncoding) {
+        final double[] qualities = new double[values().length];
+        Arrays.fill(qualities, NOT_LISTED);
+        double anyQuality = 0;
+
+        if (acceptEncoding != null) {
+            for (String element : acceptEncoding.split(",")) {
+                final String[] parameters = element.split(";");
+                final String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+                final double quality = HeaderValues.parseQuality(parameters);
+
+                if (ANY.equals(coding)) {
+                    anyQuality = quality;
+                }
+                for (ContentEncoding encoding : values()) {
+                    if (encoding.token.equals(coding)) {
+                        qualities[encoding.ordinal()] = quality;
+                    }
+                }
+            }
+        }
+
+        ContentEncoding best = IDENTITY;
+        double bestQuality = 0;
+        for (ContentEncoding encoding : values()) {
+            double quality = qualities[encoding.ordinal()];
+            if (quality == NOT_LISTED) {
+                quality = anyQuality;
+            }
+            if (encoding != IDENTITY && quality > bestQuality) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+}
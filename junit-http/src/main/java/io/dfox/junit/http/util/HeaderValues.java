@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * HeaderValues provides static methods for parsing the values of HTTP headers.
+ */
+public final class HeaderValues {
+
+    private static final double DEFAULT_QUALITY = 1.0;
+    private static final String QUALITY_PREFIX = "q=";
+
+    /**
+     * HeaderValues cannot be instantiated.
+     */
+    private HeaderValues() { }
+
+    /**
+     * Parse the quality parameter of an element of an Accept or Accept-Encoding header.
+     *
+     * @param parameters The element split on ";", with the media type or coding first
+     * @return The quality, or 1.0 if it is missing or cannot be parsed
+     */
+    public static double parseQuality(final String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = StringUtils.deleteWhitespace(parameters[i]);
+            if (parameter.startsWith(QUALITY_PREFIX)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY_PREFIX.length()));
+                }
+                catch (NumberFormatException e) {
+                    return DEFAULT_QUALITY;
+                }
+            }
+        }
+        return DEFAULT_QUALITY;
+    }
+}
@@ -17,6 +17,8 @@ package io.dfox.junit.http.util;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
@@ -35,10 +37,29 @@ public class TestUtils {
     public static final String DATA_DIR = "/test-data";
 
     /**
-     * The ObjectMapper used by the system.
+     * The ObjectMapper used by the system. Summaries and results are written by the hand-written
+     * serializers in {@link ApiModule}.
      */
     public static final ObjectMapper JSON_MAPPER =
-        new ObjectMapper().registerModule(new Jdk8Module());
+        new ObjectMapper().registerModule(new Jdk8Module()).registerModule(new ApiModule());
+
+    /**
+     * The ObjectMapper used for the binary Smile encoding of the same model as
+     * {@link #JSON_MAPPER}.
+     */
+    public static final ObjectMapper SMILE_MAPPER =
+        new ObjectMapper(new SmileFactory())
+            .registerModule(new Jdk8Module())
+            .registerModule(new ApiModule());
+
+    /**
+     * The ObjectMapper used for the binary CBOR encoding of the same model as
+     * {@link #JSON_MAPPER}.
+     */
+    public static final ObjectMapper CBOR_MAPPER =
+        new ObjectMapper(new CBORFactory())
+            .registerModule(new Jdk8Module())
+            .registerModule(new ApiModule());
 
     /**
      * TestUtils cannot be instantiated.
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Locale;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * WireFormat is a format responses can be serialized in and request bodies parsed from. All of
+ * the formats serialize the same model; JSON is the default, and Smile and CBOR are binary
+ * encodings which are cheaper to produce and parse.
+ */
+public enum WireFormat {
+
+    /**
+     * JSON text.
+     */
+    JSON("application/json", TestUtils.JSON_MAPPER),
+
+    /**
+     * Binary Smile.
+     */
+    SMILE("application/x-jackson-smile", TestUtils.SMILE_MAPPER),
+
+    /**
+     * Binary CBOR.
+     */
+    CBOR("application/cbor", TestUtils.CBOR_MAPPER);
+
+    private final String contentType;
+    private final ObjectMapper mapper;
+
+    /**
+     * @param contentType The media type of the format
+     * @param mapper The mapper which reads and writes the format
+     */
+    WireFormat(final String contentType, final ObjectMapper mapper) {
+        this.contentType = contentType;
+        this.mapper = mapper;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Choose the format of a response from the Accept header of the request. The acceptable
+     * format with the highest quality is chosen, preferring the first listed when qualities are
+     * equal. JSON is used when the header is missing or accepts none of the formats.
+     *
+     * @param accept The value of the Accept header, which may be null
+     * @return The format to use
+     */
+    public static WireFormat fromAccept(final String accept) {
+        WireFormat best = JSON;
+        double bestQuality = 0;
+
+        if (accept != null) {
+            for (String element : accept.split(",")) {
+                final String[] parameters = element.split(";");
+                final String mediaType = parameters[0].trim().toLowerCase(Locale.ROOT);
+                final double quality = HeaderValues.parseQuality(parameters);
+
+                for (WireFormat format : values()) {
+                    if (format.contentType.equals(mediaType) && quality > bestQuality) {
+                        best = format;
+                        bestQuality = quality;
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Choose the format of a request body from its Content-Type header.
+     *
+     * @param contentType The value of the Content-Type header, which may be null
+     * @return The format of the body. JSON is used when the header is missing or unknown.
+     */
+    public static WireFormat fromContentType(final String contentType) {
+        final String mediaType = 
+            StringUtils.substringBefore(StringUtils.defaultString(contentType), ";")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+
+        for (WireFormat format : values()) {
+            if (format.contentType.equals(mediaType)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.AdmissionException;
+import io.dfox.junit.http.api.AdmissionStats;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdmissionControllerTest {
+    
+    private AdmissionController createController(final int maxRunning, final int groupingLimit,
+                                                 final int queueSize, final long timeoutMillis) {
+        return new AdmissionController(Configuration.builder()
+            .admissionMaxRunning(maxRunning)
+            .admissionGroupingLimit(groupingLimit)
+            .admissionQueueSize(queueSize)
+            .admissionQueueTimeoutMillis(timeoutMillis)
+            .build());
+    }
+    
+    private void assertRejected(final AdmissionController controller, final String grouping) {
+        try {
+            controller.acquire(grouping).close();
+            fail("Expected the run to be rejected");
+        }
+        catch (AdmissionException e) {
+            // Expected
+        }
+    }
+    
+    @Test
+    public void rejectsRunsBeyondLimitWhenQueueIsFull() {
+        AdmissionController controller = createController(1, Configuration.UNLIMITED, 0, 1000);
+        
+        AdmissionController.Permit permit = controller.acquire("a");
+        assertRejected(controller, "b");
+        permit.close();
+        controller.acquire("b").close();
+        
+        AdmissionStats stats = controller.getStats();
+        assertEquals(0, stats.getRunning());
+        assertEquals(2, stats.getAdmitted());
+        assertEquals(1, stats.getRejected());
+    }
+    
+    @Test
+    public void limitsEachGrouping() {
+        AdmissionController controller = createController(4, 1, 0, 1000);
+        
+        try (AdmissionController.Permit permit = controller.acquire("a")) {
+            assertNotNull(permit);
+            assertRejected(controller, "a");
+            controller.acquire("b").close();
+            assertEquals(1, controller.getStats().getRunning());
+        }
+        controller.acquire("a").close();
+    }
+    
+    @Test
+    public void rejectsRunsWhichWaitTooLong() {
+        AdmissionController controller = createController(1, Configuration.UNLIMITED, 1, 50);
+        
+        try (AdmissionController.Permit permit = controller.acquire("a")) {
+            assertNotNull(permit);
+            long start = System.nanoTime();
+            assertRejected(controller, "a");
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        assertEquals(0, controller.getStats().getWaiting());
+    }
+    
+    @Test
+    public void admitsWaitingRunWhenCapacityIsReleased() throws Exception {
+        AdmissionController controller = createController(1, 1, 1, 10000);
+        
+        AdmissionController.Permit permit = controller.acquire("a");
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+            controller.acquire("a").close();
+        });
+        while (controller.getStats().getWaiting() == 0) {
+            Thread.sleep(1);
+        }
+        permit.close();
+        waiter.get(10, TimeUnit.SECONDS);
+        
+        AdmissionStats stats = controller.getStats();
+        assertEquals(2, stats.getAdmitted());
+        assertTrue(stats.getMaxWaitMillis() > 0);
+        assertTrue(stats.getAverageWaitMillis() > 0);
+    }
+}
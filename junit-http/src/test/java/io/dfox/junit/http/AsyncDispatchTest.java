@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import com.mockrunner.mock.web.MockHttpServletRequest;
+import com.mockrunner.mock.web.MockHttpServletResponse;
+import java.io.PrintWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class AsyncDispatchTest {
+    
+    @Test
+    public void handlerWhichIgnoresTimeoutCannotWriteLate() throws Exception {
+        MockAsyncHttpServletRequest request = 
+            new MockAsyncHttpServletRequest(new MockHttpServletRequest());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AsyncContext context = request.startAsync(request, response);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        
+        AsyncDispatch dispatch = new AsyncDispatch(context, (handlerRequest, handlerResponse) -> {
+            started.countDown();
+            awaitIgnoringInterrupts(release);
+            handlerResponse.setStatus(200);
+            handlerResponse.setHeader("X-Late", "true");
+            try (PrintWriter writer = handlerResponse.getWriter()) {
+                writer.write("late");
+            }
+            handlerResponse.getOutputStream().write(new byte[] {1, 2, 3});
+            finished.countDown();
+        });
+        context.addListener(dispatch);
+        new Thread(dispatch).start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        
+        request.timeOut();
+        release.countDown();
+        
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertTrue(request.isCompleted());
+        assertEquals(503, response.getStatusCode());
+        assertEquals(null, response.getHeader("X-Late"));
+        assertEquals("", response.getOutputStreamContent());
+    }
+    
+    private static void awaitIgnoringInterrupts(final CountDownLatch latch) {
+        while (latch.getCount() > 0) {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                // The handler carries on regardless
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import com.mockrunner.mock.web.MockHttpServletRequest;
+import com.mockrunner.mock.web.MockHttpServletResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.dfox.junit.http.api.CoordinatedSummary;
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.MethodNotFoundException;
+import io.dfox.junit.http.api.NodeRun;
+import io.dfox.junit.http.api.Result;
+import io.dfox.junit.http.api.Summary;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.servlet.ServletException;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoordinatorTest {
+    
+    private static final String SUITE = "io.dfox.junit.http.examples.suite.*";
+    private static final String DEAD_PEER = "http://localhost:1";
+    private static final long SLOW_PEER_MILLIS = 2000L;
+    
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<JUnitHttpServlet> servlets = new ArrayList<>();
+    private JUnitHttpApplication coordinator;
+    
+    @Before
+    public void setUp() throws IOException {
+        startPeer();
+        startPeer();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        if (coordinator != null) {
+            coordinator.destroy();
+        }
+        servers.forEach(server -> server.stop(0));
+        servlets.forEach(JUnitHttpServlet::destroy);
+    }
+    
+    /**
+     * Serve a JUnitHttpServlet over HTTP on an ephemeral localhost port, as a peer would.
+     */
+    private void startPeer() throws IOException {
+        JUnitHttpServlet servlet = new JUnitHttpServlet();
+        servlet.init();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> serve(servlet, exchange));
+        server.start();
+        servlets.add(servlet);
+        servers.add(server);
+    }
+    
+    private void serve(final JUnitHttpServlet servlet, final HttpExchange exchange) 
+        throws IOException {
+        
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setContextPath("");
+        request.setRequestURI(exchange.getRequestURI().getRawPath());
+        request.setMethod(exchange.getRequestMethod());
+        exchange.getRequestHeaders().forEach(
+            (name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                request.setupAddParameter(URLDecoder.decode(pair[0], "UTF-8"), 
+                                          URLDecoder.decode(pair[1], "UTF-8"));
+            }
+        }
+        
+        try {
+            servlet.doPost(request, response);
+        }
+        catch (ServletException e) {
+            throw new IOException(e);
+        }
+        
+        byte[] body = response.getOutputStreamContent().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.getStatusCode(), body.length);
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+    
+    private String peer(final int index) {
+        return "http://localhost:" + servers.get(index).getAddress().getPort();
+    }
+    
+    private JUnitHttpApplication coordinator(final int retries, final String... peers) {
+        coordinator = new JUnitHttpApplication(Configuration.builder()
+            .coordinatorPeers(Arrays.asList(peers))
+            .coordinatorRetries(retries)
+            .build());
+        return coordinator;
+    }
+    
+    private static List<String> describe(final Summary summary) {
+        return summary.getResults().stream()
+            .map(result -> result.getGrouping() + "/" + result.getName() + ":" + result.getType())
+            .sorted()
+            .collect(Collectors.toList());
+    }
+    
+    @Test
+    public void coordinatedRunMatchesLocalRun() throws Exception {
+        JUnitHttpApplication local = new JUnitHttpApplication();
+        Summary expected;
+        try {
+            expected = local.runTest(SUITE);
+        }
+        finally {
+            local.destroy();
+        }
+        
+        CoordinatedSummary summary = coordinator(1, peer(0), peer(1))
+            .coordinate(SUITE, RunOptions.defaults());
+        
+        assertEquals(describe(expected), describe(summary.getSummary()));
+        assertFalse(summary.isSuccessful());
+        assertEquals(2, summary.getNodes().size());
+        for (int i = 0; i < 2; i++) {
+            NodeRun node = summary.getNodes().get(i);
+            assertEquals((i + 1) + "/2", node.getShard());
+            assertEquals(peer(i), node.getPeer());
+            assertEquals(1, node.getAttempts());
+            assertFalse(node.getError().isPresent());
+        }
+    }
+    
+    @Test
+    public void retriesFailedShardOnNextPeer() {
+        CoordinatedSummary summary = coordinator(1, DEAD_PEER, peer(0))
+            .coordinate("io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest", 
+                        RunOptions.defaults());
+        
+        assertEquals(Arrays.asList(
+            "io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest/firstTest:success"), 
+            describe(summary.getSummary()));
+        assertTrue(summary.isSuccessful());
+        NodeRun retried = summary.getNodes().get(0);
+        assertEquals(peer(0), retried.getPeer());
+        assertEquals(2, retried.getAttempts());
+        assertFalse(retried.getError().isPresent());
+    }
+    
+    @Test
+    public void reportsShardWhichNoPeerCouldRun() {
+        CoordinatedSummary summary = coordinator(0, DEAD_PEER, peer(0))
+            .coordinate("io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest", 
+                        RunOptions.defaults());
+        
+        assertFalse(summary.isSuccessful());
+        NodeRun failed = summary.getNodes().get(0);
+        assertEquals(DEAD_PEER, failed.getPeer());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getError().isPresent());
+        Result result = summary.getSummary().getResults().get(0);
+        assertTrue(result instanceof Failure);
+        assertEquals("io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest", 
+                     result.getGrouping());
+        assertEquals("shard 1/2", result.getName());
+    }
+    
+    @Test
+    public void retriesShardOnNextPeerWhenPeerCannotFindTests() {
+        CoordinatedSummary summary = coordinator(1, peer(0) + "/wrong-context", peer(1))
+            .coordinate("io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest", 
+                        RunOptions.defaults());
+        
+        assertTrue(summary.isSuccessful());
+        assertEquals(peer(1), summary.getNodes().get(0).getPeer());
+        assertEquals(2, summary.getNodes().get(0).getAttempts());
+    }
+    
+    @Test(expected = MethodNotFoundException.class)
+    public void reportsNotFoundWhenNoPeerCanFindTests() {
+        coordinator(1, peer(0), peer(1)).coordinate("io.dfox.DoesNotExist", RunOptions.defaults());
+    }
+    
+    @Test
+    public void doesNotRetryShardOnceRunHasTimedOut() throws IOException {
+        HttpServer slow = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        slow.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SLOW_PEER_MILLIS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        slow.setExecutor(Executors.newCachedThreadPool());
+        slow.start();
+        servers.add(slow);
+        String slowPeer = "http://localhost:" + slow.getAddress().getPort();
+        
+        long start = System.nanoTime();
+        CoordinatedSummary summary = coordinator(3, slowPeer, slowPeer)
+            .coordinate("io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest", 
+                        RunOptions.builder().timeoutMillis(SLOW_PEER_MILLIS / 4).build());
+        
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2 * SLOW_PEER_MILLIS);
+        for (NodeRun node : summary.getNodes()) {
+            assertEquals(1, node.getAttempts());
+            assertTrue(node.getError().isPresent());
+        }
+    }
+    
+    @Test
+    public void postCoordinatesRunOnlyWithPeers() throws ServletException, IOException {
+        String uri = "/" + JUnitHttpServlet.COORDINATE_PREFIX 
+            + "/io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest";
+        
+        JUnitHttpServlet servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder().coordinatorPeers(Arrays.asList(peer(0))).build());
+        servlets.add(servlet);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setContextPath("");
+        request.setRequestURI(uri);
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getOutputStreamContent().contains("\"shard\":\"1/1\""));
+        
+        JUnitHttpServlet peer = servlets.get(0);
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        peer.doPost(request, notFound);
+        
+        assertEquals(404, notFound.getStatusCode());
+    }
+    
+    @Test
+    public void applicationIsNotCoordinatorWithoutPeers() {
+        JUnitHttpApplication application = new JUnitHttpApplication();
+        try {
+            assertFalse(application.isCoordinator());
+            assertTrue(coordinator(1, peer(0)).isCoordinator());
+        }
+        finally {
+            application.destroy();
+        }
+    }
+}
@@ -15,20 +15,48 @@
  */
 package io.dfox.junit.http;
 
+import io.dfox.junit.http.api.AdmissionException;
+import io.dfox.junit.http.api.BatchResult;
+import io.dfox.junit.http.api.BatchSummary;
+import io.dfox.junit.http.api.Discovery;
 import io.dfox.junit.http.api.InvalidPathException;
 import io.dfox.junit.http.api.Failure;
 import io.dfox.junit.http.api.Ignored;
+import io.dfox.junit.http.examples.ExampleCachedTest;
+import io.dfox.junit.http.examples.ExampleCancelledTest;
+import io.dfox.junit.http.examples.ExampleCategorizedTest;
+import io.dfox.junit.http.examples.ExampleCoalescedTest;
+import io.dfox.junit.http.examples.ExampleFailFastTest;
+import io.dfox.junit.http.examples.ExampleIdempotentFixtureTest;
+import io.dfox.junit.http.examples.ExampleLifecycleTest;
 import io.dfox.junit.http.examples.ExampleNonTest;
+import io.dfox.junit.http.examples.ExampleParallelTest;
 import io.dfox.junit.http.examples.ExampleTest;
 import io.dfox.junit.http.api.MethodNotFoundException;
+import io.dfox.junit.http.api.NotRun;
 import io.dfox.junit.http.api.Path;
 import io.dfox.junit.http.api.Result;
 import io.dfox.junit.http.api.Summary;
 import io.dfox.junit.http.api.RunnerException;
 import io.dfox.junit.http.api.Success;
+import io.dfox.junit.http.api.Timeout;
+import io.dfox.junit.http.examples.ExampleSlowTest;
 import io.dfox.junit.http.examples.ExampleTestWithBadBeforeClass;
+import io.dfox.junit.http.examples.ExampleTestWithSlowBeforeClass;
+import io.dfox.junit.http.examples.warmup.ExampleWarmupTest;
+import io.dfox.junit.http.util.ContentEncoding;
+import io.dfox.junit.http.util.WireFormat;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -164,13 +192,50 @@ public class JUnitHttpApplicationTest {
         });
     }
 
+    private JUnitHttpRunner getRunner(final Path path) {
+        try (RunnerCache.Lease lease = application.leaseRunner(path)) {
+            return lease.getRunner();
+        }
+    }
+    
     @Test
     public void runnerIsCached() {
         Path path = new Path(ExampleTest.class.getName());
-        JUnitHttpRunner runnerA = application.getRunner(path);
-        JUnitHttpRunner runnerB = application.getRunner(path);
+        try (RunnerCache.Lease leaseA = application.leaseRunner(path);
+             RunnerCache.Lease leaseB = application.leaseRunner(path)) {
+            
+            assertSame(leaseA.getRunner(), leaseB.getRunner());
+        }
+    }
+    
+    @Test
+    public void slowRunnerInitializationDoesNotBlockOtherGroupings() throws Exception {
+        Path slowPath = new Path(ExampleTestWithSlowBeforeClass.class.getName());
+        CompletableFuture<JUnitHttpRunner> first = 
+            CompletableFuture.supplyAsync(() -> getRunner(slowPath));
+        assertTrue(ExampleTestWithSlowBeforeClass.STARTED.await(10, TimeUnit.SECONDS));
+        CompletableFuture<JUnitHttpRunner> second = 
+            CompletableFuture.supplyAsync(() -> getRunner(slowPath));
         
-        assertSame(runnerA, runnerB);
+        assertNotNull(getRunner(new Path(ExampleTest.class.getName())));
+        assertFalse(first.isDone());
+        
+        ExampleTestWithSlowBeforeClass.RELEASE.countDown();
+        assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, ExampleTestWithSlowBeforeClass.SET_UPS.get());
+    }
+    
+    @Test
+    public void failedRunnerInitializationIsRetried() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                getRunner(new Path(ExampleTestWithBadBeforeClass.class.getName()));
+                fail("Initialization should fail");
+            }
+            catch (RunnerException e) {
+                assertEquals("Error invoking @BeforeClass method: setUpClass", e.getMessage());
+            }
+        }
     }
     
     @Test
@@ -220,4 +285,573 @@ public class JUnitHttpApplicationTest {
         assertEquals("my-note", fixture.path("name").asText());
         assertEquals("This is my note", fixture.path("contents").asText());
     }
+    
+    @Test
+    public void runsBatchInOrder() {
+        BatchSummary batch = application.runBatch(Arrays.asList(
+            "fixtures/" + ExampleTest.class.getName() + "/someFixture",
+            "tests/" + ExampleTest.class.getName() + "/fixtureWasRun",
+            "/tests/" + ExampleTest.class.getName() + "/nonExistentMethod",
+            "other/" + ExampleTest.class.getName()
+        ), false);
+        
+        assertFalse(batch.isSuccessful());
+        assertEquals(4, batch.getResults().size());
+        
+        BatchResult fixture = batch.getResults().get(0);
+        assertEquals(200, fixture.getStatus());
+        assertTrue(fixture.getSummary().get().isSuccessful());
+        
+        BatchResult test = batch.getResults().get(1);
+        assertEquals(200, test.getStatus());
+        assertTrue(test.getSummary().get().isSuccessful());
+        
+        BatchResult missing = batch.getResults().get(2);
+        assertEquals(404, missing.getStatus());
+        assertFalse(missing.getSummary().isPresent());
+        assertTrue(missing.getError().isPresent());
+        
+        assertEquals(404, batch.getResults().get(3).getStatus());
+    }
+    
+    @Test
+    public void runsBatchInParallelKeepingOrder() {
+        BatchSummary batch = application.runBatch(Arrays.asList(
+            "tests/" + ExampleTest.class.getName() + "/successfulTest",
+            "tests/" + ExampleTest.class.getName() + "/exceptionTest",
+            "tests/" + ExampleTestWithBadBeforeClass.class.getName()
+        ), true);
+        
+        assertEquals(3, batch.getResults().size());
+        assertTrue(batch.getResults().get(0).isSuccessful());
+        assertFalse(batch.getResults().get(1).isSuccessful());
+        assertEquals("exceptionTest", 
+                     batch.getResults().get(1).getSummary().get().getResults().get(0).getName());
+        assertEquals(500, batch.getResults().get(2).getStatus());
+    }
+    
+    @Test
+    public void dataDocumentIsCached() throws IOException {
+        DataDocument document = application.getDataDocument("notes.json").get();
+        
+        assertSame(document, application.getDataDocument("notes.json").get());
+        assertSame(document.getBytes(WireFormat.SMILE, ContentEncoding.GZIP), 
+                   application.getDataDocument("notes.json").get()
+                       .getBytes(WireFormat.SMILE, ContentEncoding.GZIP));
+        assertFalse(application.getDataDocument("doesnt-exist.json").isPresent());
+    }
+    
+    @Test
+    public void slowTestTimesOut() {
+        RunOptions options = RunOptions.builder().testTimeoutMillis(100).build();
+        long start = System.currentTimeMillis();
+        
+        Summary summary = application.runTest(ExampleSlowTest.class.getName() + "/slowTest", options);
+        
+        assertTrue(System.currentTimeMillis() - start < ExampleSlowTest.SLOW_MILLIS);
+        assertFalse(summary.isSuccessful());
+        assertEquals(1, summary.getResults().size());
+        Result result = summary.getResults().get(0);
+        assertTrue(result instanceof Timeout);
+        assertEquals("timeout", result.getType());
+        assertEquals("slowTest", result.getName());
+    }
+    
+    @Test
+    public void slowFixtureTimesOut() {
+        RunOptions options = RunOptions.builder().timeoutMillis(100).build();
+        
+        Summary summary = application.runFixture(ExampleSlowTest.class.getName() + "/slowFixture", 
+                                                 options);
+        
+        assertFalse(summary.isSuccessful());
+        assertTrue(summary.getResults().get(0) instanceof Timeout);
+    }
+    
+    @Test
+    public void expiredRunReturnsPartialSummary() {
+        RunOptions options = RunOptions.builder().timeoutMillis(500).build();
+        
+        Summary summary = application.runTest(ExampleSlowTest.class.getName(), options);
+        
+        assertFalse(summary.isSuccessful());
+        assertEquals(1, summary.getResults().stream().filter(r -> r instanceof Timeout).count());
+        for (Result result : summary.getResults()) {
+            if (!(result instanceof Timeout)) {
+                assertEquals("fastTest", result.getName());
+                assertTrue(result instanceof Success);
+            }
+        }
+    }
+    
+    @Test
+    public void parallelBatchWaitingForAdmissionDoesNotStarvePool() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .parallelism(2)
+            .admissionMaxRunning(1)
+            .admissionQueueTimeoutMillis(5000)
+            .build());
+        
+        BatchSummary batch = application.runBatch(Arrays.asList(
+            "tests/io.dfox.junit.http.examples.suite.*",
+            "tests/" + ExampleTest.class.getName() + "/successfulTest",
+            "tests/" + ExampleTest.class.getName() + "/successfulTest"
+        ), true);
+        
+        for (BatchResult result : batch.getResults()) {
+            assertEquals(200, result.getStatus());
+        }
+        assertEquals(0, application.getAdmissionStats().getRejected());
+    }
+    
+    @Test
+    public void batchPathWhichIsNotAdmittedReturnsTooManyRequests() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .admissionMaxRunning(1)
+            .admissionQueueSize(0)
+            .build());
+        
+        BatchSummary batch = application.run(ExampleTest.class.getName(), (runner, path) -> 
+            application.runBatch(Arrays.asList("tests/" + ExampleTest.class.getName()), false)
+        );
+        
+        assertEquals(429, batch.getResults().get(0).getStatus());
+        assertEquals(1, application.getAdmissionStats().getRejected());
+    }
+    
+    @Test
+    public void warmUpCreatesRunnersOfTestClasses() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .warmupPackages(Arrays.asList("io.dfox.junit.http.examples.warmup"))
+            .build());
+        List<String> failures = new CopyOnWriteArrayList<>();
+        
+        application.warmUp((name, e) -> failures.add(name)).get(10, TimeUnit.SECONDS);
+        
+        assertTrue(application.isReady());
+        assertTrue(failures.isEmpty());
+        assertEquals(1, ExampleWarmupTest.SET_UPS.get());
+        application.runTest(ExampleWarmupTest.class.getName());
+        assertEquals(1, ExampleWarmupTest.SET_UPS.get());
+    }
+    
+    private List<String> names(final Summary summary) {
+        return summary.getResults().stream()
+            .map(result -> result.getName())
+            .collect(Collectors.toList());
+    }
+    
+    @Test
+    public void testsOfParallelClassRunConcurrentlyInOrder() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .parallelism(ExampleParallelTest.TESTS)
+            .build());
+        
+        Summary summary = application.runTest(ExampleParallelTest.class.getName());
+        
+        assertEquals(ExampleParallelTest.TESTS, summary.getResults().size());
+        assertTrue(summary.isSuccessful());
+        List<String> expected = new JUnitHttpRunner(ExampleParallelTest.class)
+            .getDescription().getChildren().stream()
+            .map(description -> description.getMethodName())
+            .collect(Collectors.toList());
+        assertEquals(expected, names(summary));
+    }
+    
+    @Test
+    public void parallelTestsOptionKeepsResultOrder() throws Exception {
+        Summary sequential = application.runTest(ExampleTest.class.getName());
+        Summary parallel = application.runTest(ExampleTest.class.getName(), 
+                                               RunOptions.builder().parallelTests(true).build());
+        
+        assertEquals(names(sequential), names(parallel));
+        assertEquals(sequential.isSuccessful(), parallel.isSuccessful());
+    }
+    
+    @Test
+    public void packagePathRunsEveryClassInPackage() throws Exception {
+        Summary summary = application.runTest("io.dfox.junit.http.examples.suite.*");
+        
+        List<String> tests = summary.getResults().stream()
+            .map(result -> result.getGrouping().substring(result.getGrouping().lastIndexOf('.') + 1)
+                           + "/" + result.getName())
+            .collect(Collectors.toList());
+        assertEquals(4, tests.size());
+        assertEquals("ExampleSuiteBrokenTest/initializationError", tests.get(0));
+        assertTrue(tests.get(1).startsWith("ExampleSuiteFirstTest/"));
+        assertTrue(tests.get(2).startsWith("ExampleSuiteSecondTest/"));
+        assertTrue(tests.get(3).startsWith("ExampleSuiteSecondTest/"));
+        assertEquals(2, summary.getResults().stream().filter(r -> r instanceof Failure).count());
+    }
+    
+    @Test
+    public void packagePathAdmitsEachClass() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .admissionMaxRunning(1)
+            .build());
+        
+        Summary summary = application.runTest("io.dfox.junit.http.examples.suite.*");
+        
+        assertEquals(4, summary.getResults().size());
+        assertEquals(3, application.getAdmissionStats().getAdmitted());
+        assertEquals(0, application.getAdmissionStats().getRejected());
+    }
+    
+    @Test
+    public void packagePathRespectsGroupingLimitOfClassRunningDirectly() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .admissionMaxRunning(4)
+            .admissionGroupingLimit(1)
+            .admissionQueueSize(0)
+            .build());
+        String firstClass = "io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest";
+        
+        Summary summary = application.run(firstClass, (runner, path) -> 
+            application.runTest("io.dfox.junit.http.examples.suite.*"));
+        
+        List<String> tests = summary.getResults().stream()
+            .map(result -> result.getGrouping().substring(result.getGrouping().lastIndexOf('.') + 1)
+                           + "/" + result.getName())
+            .collect(Collectors.toList());
+        assertEquals(4, tests.size());
+        assertEquals("ExampleSuiteFirstTest/admissionError", tests.get(1));
+        assertTrue(summary.getResults().get(1) instanceof Failure);
+        assertTrue(tests.get(2).startsWith("ExampleSuiteSecondTest/"));
+        assertEquals(1, application.getAdmissionStats().getRejected());
+    }
+    
+    @Test(expected = MethodNotFoundException.class)
+    public void emptyPackagePathThrowsException() throws Exception {
+        application.runTest("io.dfox.junit.http.nothing.*");
+    }
+    
+    @Test(expected = InvalidPathException.class)
+    public void packagePathWithNameThrowsException() throws Exception {
+        application.runTest("io.dfox.junit.http.examples.suite.*/firstTest");
+    }
+    
+    private List<String> runLifecycleTests(final boolean cacheStatements) {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .runnersCacheStatements(cacheStatements)
+            .build());
+        ExampleLifecycleTest.EVENTS.clear();
+        
+        List<String> results = application.runTest(ExampleLifecycleTest.class.getName())
+            .getResults().stream()
+            .map(result -> result.getName() + ":" + result.getClass().getSimpleName())
+            .collect(Collectors.toList());
+        results.addAll(ExampleLifecycleTest.EVENTS);
+        return results;
+    }
+    
+    @Test
+    public void cachedStatementsBehaveLikeJUnitStatements() throws Exception {
+        List<String> uncached = runLifecycleTests(false);
+        List<String> cached = runLifecycleTests(true);
+        
+        assertEquals(uncached, cached);
+        assertTrue(cached.contains("failingTest:Failure"));
+        assertTrue(cached.contains("expectingTest:Success"));
+        assertEquals(3, cached.stream().filter(event -> event.equals("after")).count());
+    }
+    
+    @Test
+    public void annotatedTestResultIsCached() throws Exception {
+        String path = ExampleCachedTest.class.getName() + "/cachedTest";
+        int runs = ExampleCachedTest.RUNS.get();
+        
+        Summary first = application.runTest(path);
+        Summary second = application.runTest(path);
+        
+        assertEquals(runs + 1, ExampleCachedTest.RUNS.get());
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertEquals(first.getResults(), second.getResults());
+    }
+    
+    @Test
+    public void failedResultIsNotCached() throws Exception {
+        String path = ExampleCachedTest.class.getName() + "/failingCachedTest";
+        int runs = ExampleCachedTest.RUNS.get();
+        
+        application.runTest(path);
+        Summary second = application.runTest(path);
+        
+        assertEquals(runs + 2, ExampleCachedTest.RUNS.get());
+        assertFalse(second.isCached());
+    }
+    
+    @Test
+    public void maxAgeOptionCachesResult() throws Exception {
+        String path = ExampleCachedTest.class.getName() + "/uncachedTest";
+        RunOptions options = RunOptions.builder().maxAgeSeconds(60).build();
+        int runs = ExampleCachedTest.RUNS.get();
+        
+        application.runTest(path, options);
+        assertFalse(application.runTest(path).isCached());
+        assertTrue(application.runTest(path, options).isCached());
+        
+        assertEquals(runs + 2, ExampleCachedTest.RUNS.get());
+    }
+    
+    @Test
+    public void concurrentIdenticalRunsOfCoalescedClassAreShared() throws Exception {
+        String path = ExampleCoalescedTest.class.getName() + "/sharedTest";
+        CompletableFuture<Summary> first = CompletableFuture.supplyAsync(() -> 
+            application.runTest(path));
+        assertTrue(ExampleCoalescedTest.STARTED.await(10, TimeUnit.SECONDS));
+        
+        CompletableFuture<Summary> second = new CompletableFuture<>();
+        Thread secondThread = new Thread(() -> second.complete(application.runTest(path)));
+        secondThread.start();
+        while (secondThread.getState() == Thread.State.NEW 
+               || secondThread.getState() == Thread.State.RUNNABLE) {
+            Thread.sleep(10);
+        }
+        ExampleCoalescedTest.RELEASE.countDown();
+        
+        assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, ExampleCoalescedTest.RUNS.get());
+    }
+    
+    @Test
+    public void idempotentFixtureRunsOnce() throws Exception {
+        String path = ExampleIdempotentFixtureTest.class.getName() + "/createOnce";
+        int creates = ExampleIdempotentFixtureTest.CREATES.get();
+        
+        assertTrue(application.runFixture(path).isSuccessful());
+        assertTrue(application.runFixture(path).isSuccessful());
+        
+        assertEquals(creates + 1, ExampleIdempotentFixtureTest.CREATES.get());
+    }
+    
+    @Test
+    public void failedIdempotentFixtureRunsAgain() throws Exception {
+        String path = ExampleIdempotentFixtureTest.class.getName() + "/failToCreate";
+        int failures = ExampleIdempotentFixtureTest.FAILURES.get();
+        
+        assertFalse(application.runFixture(path).isSuccessful());
+        assertFalse(application.runFixture(path).isSuccessful());
+        
+        assertEquals(failures + 2, ExampleIdempotentFixtureTest.FAILURES.get());
+    }
+    
+    private List<String> runSelected(final TestSelector selector) {
+        List<String> names = names(application.runTest(ExampleCategorizedTest.class.getName(), 
+            RunOptions.builder().selector(selector).build()));
+        Collections.sort(names);
+        return names;
+    }
+    
+    @Test
+    public void selectorChoosesTestsByCategoryAndName() throws Exception {
+        assertEquals(Arrays.asList("loadSmokeTest", "saveSmokeTest"), 
+                     runSelected(TestSelector.builder().category("Smoke").build()));
+        assertEquals(Arrays.asList("saveSmokeTest"), 
+                     runSelected(TestSelector.builder()
+                         .category(ExampleCategorizedTest.SaveSmoke.class.getName())
+                         .build()));
+        assertEquals(Arrays.asList("saveSmokeTest", "saveThoroughTest"), 
+                     runSelected(TestSelector.builder().nameGlob("save*").build()));
+        assertEquals(Arrays.asList("saveSmokeTest"), 
+                     runSelected(TestSelector.builder().category("Smoke").nameGlob("s?ve*")
+                         .build()));
+        assertEquals(Arrays.asList("loadSmokeTest", "saveSmokeTest", "saveThoroughTest"), 
+                     runSelected(TestSelector.builder().category("Thorough").category("Smoke")
+                         .build()));
+    }
+    
+    @Test
+    public void timingsOutliveEvictedRunners() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder().runnersMaxSize(1).build());
+        Path classPath = new Path(ExampleTest.class.getName());
+        Path testPath = new Path(ExampleTest.class.getName(), "successfulTest");
+        
+        application.runTest(ExampleTest.class.getName());
+        application.runTest(ExampleCategorizedTest.class.getName());
+        
+        // The evictor runs in the background, once a second
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (application.getRunnerCacheStats().getEvictions() == 0 
+               && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, application.getRunnerCacheStats().getEvictions());
+        assertTrue(application.getTimings().estimateNanos(classPath).isPresent());
+        assertTrue(application.getTimings().estimateNanos(testPath).isPresent());
+    }
+    
+    private List<String> types(final Summary summary) {
+        return summary.getResults().stream()
+            .map(result -> result.getName() + ":" + result.getType())
+            .collect(Collectors.toList());
+    }
+    
+    @Test
+    public void failFastSkipsTestsAfterFirstFailure() throws Exception {
+        RunOptions failFast = RunOptions.builder().failFast(true).build();
+        
+        assertEquals(Arrays.asList("firstTest:failure", "secondTest:notrun", "thirdTest:notrun"), 
+                     types(application.runTest(ExampleFailFastTest.class.getName(), failFast)));
+        assertEquals(Arrays.asList("firstTest:failure", "secondTest:success", "thirdTest:success"), 
+                     types(application.runTest(ExampleFailFastTest.class.getName())));
+    }
+    
+    @Test
+    public void failFastCancelsRunningParallelTests() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .parallelism(ExampleCancelledTest.TESTS)
+            .build());
+        
+        ExampleCancelledTest.reset();
+        long start = System.nanoTime();
+        Summary summary = application.runTest(ExampleCancelledTest.class.getName(), 
+                                              RunOptions.builder().failFast(true).build());
+        
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+        assertEquals(1, summary.getResults().stream().filter(r -> r instanceof Failure).count());
+        assertEquals(1, summary.getResults().stream().filter(r -> r instanceof NotRun).count());
+        assertEquals("blockedTest", summary.getResults().stream()
+            .filter(r -> r instanceof NotRun).findFirst().get().getName());
+        assertTrue(ExampleCancelledTest.isBlockedTestStopped());
+    }
+    
+    @Test
+    public void failFastStopsCancelledTestsRunningUnderTimeout() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .parallelism(ExampleCancelledTest.TESTS)
+            .build());
+        
+        ExampleCancelledTest.reset();
+        long start = System.nanoTime();
+        Summary summary = application.runTest(ExampleCancelledTest.class.getName(), 
+                                              RunOptions.builder()
+                                                  .failFast(true)
+                                                  .timeoutMillis(120000)
+                                                  .build());
+        
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+        assertEquals("blockedTest", summary.getResults().stream()
+            .filter(r -> r instanceof NotRun).findFirst().get().getName());
+        // The statement runs on the timeout's own thread, which must have been stopped too
+        assertTrue(ExampleCancelledTest.isBlockedTestStopped());
+    }
+    
+    @Test
+    public void failFastPackageReportsOnlySelectedTestsAsNotRun() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder().parallelism(1).build());
+        
+        Summary summary = application.runTest("io.dfox.junit.http.examples.suite.*", 
+                                              RunOptions.builder()
+                                                  .failFast(true)
+                                                  .selector(TestSelector.builder()
+                                                      .nameGlob("f*")
+                                                      .build())
+                                                  .build());
+        
+        assertEquals(Arrays.asList("initializationError:failure", "firstTest:notrun", 
+                                   "failingTest:notrun"), 
+                     types(summary));
+    }
+    
+    @Test
+    public void notRunLeavesOutIgnoredTests() throws Exception {
+        JUnitHttpRunner runner = new JUnitHttpRunner(ExampleTest.class, ForkJoinPool.commonPool(),
+                                                     false, new TimingStore());
+        
+        List<String> types = types(runner.notRun(TestSelector.all()));
+        
+        assertFalse(types.isEmpty());
+        assertFalse(types.contains("ignoredTest:notrun"));
+        assertTrue(types.stream().allMatch(type -> type.endsWith(":notrun")));
+    }
+    
+    @Test
+    public void failFastPackageSkipsClassesAfterFirstFailure() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder().parallelism(1).build());
+        
+        Summary summary = application.runTest("io.dfox.junit.http.examples.suite.*", 
+                                              RunOptions.builder().failFast(true).build());
+        
+        assertEquals(Arrays.asList("initializationError:failure", "firstTest:notrun", 
+                                   "failingTest:notrun", "secondTest:notrun"), 
+                     types(summary));
+    }
+    
+    @Test
+    public void shardsCoverEveryTestOnce() throws Exception {
+        final int shards = 3;
+        String path = ExampleCategorizedTest.class.getName();
+        List<String> all = names(application.runTest(path));
+        List<String> sharded = new ArrayList<>();
+        
+        for (int shard = 1; shard <= shards; shard++) {
+            TestSelector selector = TestSelector.builder().shard(shard, shards).build();
+            List<String> names = names(application.runTest(path, 
+                RunOptions.builder().selector(selector).build()));
+            Discovery discovery = application.discover(path, selector);
+            
+            assertEquals(all.size(), discovery.getTests().size());
+            assertEquals(names, discovery.getSelected().stream()
+                .map(test -> Path.parse(test).get().getName().get())
+                .collect(Collectors.toList()));
+            sharded.addAll(names);
+        }
+        
+        Collections.sort(all);
+        Collections.sort(sharded);
+        assertEquals(all, sharded);
+    }
+    
+    @Test
+    public void discoverListsTestsOfPackage() throws Exception {
+        Discovery discovery = application.discover("io.dfox.junit.http.examples.suite.*", 
+                                                   TestSelector.all());
+        
+        assertEquals(Arrays.asList(
+            "io.dfox.junit.http.examples.suite.ExampleSuiteBrokenTest/initializationError",
+            "io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest/firstTest"), 
+            discovery.getTests().subList(0, 2));
+        assertEquals(4, discovery.getTests().size());
+        assertEquals(discovery.getTests(), discovery.getSelected());
+    }
+    
+    @Test
+    public void discoverRespectsGroupingLimit() throws Exception {
+        application.destroy();
+        application = new JUnitHttpApplication(Configuration.builder()
+            .admissionMaxRunning(4)
+            .admissionGroupingLimit(1)
+            .admissionQueueSize(0)
+            .build());
+        String firstClass = "io.dfox.junit.http.examples.suite.ExampleSuiteFirstTest";
+        
+        Discovery discovery = application.run(firstClass, (runner, path) -> 
+            application.discover("io.dfox.junit.http.examples.suite.*", TestSelector.all()));
+        
+        assertEquals(firstClass + "/admissionError", discovery.getTests().get(1));
+        assertEquals(4, discovery.getTests().size());
+        assertEquals(1, application.getAdmissionStats().getRejected());
+        
+        try {
+            application.run(firstClass, (runner, path) -> 
+                application.discover(firstClass, TestSelector.all()));
+            fail("Expected the class not to be admitted");
+        }
+        catch (AdmissionException e) {
+            assertEquals(2, application.getAdmissionStats().getRejected());
+        }
+    }
 }
@@ -17,10 +17,32 @@ package io.dfox.junit.http;
 
 import com.mockrunner.mock.web.MockHttpServletRequest;
 import com.mockrunner.mock.web.MockHttpServletResponse;
+import com.mockrunner.mock.web.MockServletOutputStream;
+import io.dfox.junit.http.examples.ExampleBlockingTest;
+import io.dfox.junit.http.examples.ExampleTest;
+import io.dfox.junit.http.examples.ExampleThreadTest;
+import io.dfox.junit.http.examples.slowwarmup.ExampleSlowWarmupTest;
+import io.dfox.junit.http.util.TestUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 import javax.servlet.ServletException;
 import org.junit.After;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -105,5 +127,519 @@ public class JUnitHttpServletTest {
                      + "\"name\":\"successfulTest\",\"type\":\"success\"}],\"successful\":true}", 
                      response.getOutputStreamContent());
     }
+    
+    @Test
+    public void asyncPostRunsTestAndCompletesRequest() throws Exception {
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder().asyncEnabled(true).asyncThreads(1).build());
+        
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        MockAsyncHttpServletRequest asyncRequest = new MockAsyncHttpServletRequest(request);
+        
+        servlet.doPost(asyncRequest, response);
+        
+        assertTrue(asyncRequest.isAsyncStarted());
+        assertTrue(asyncRequest.awaitCompletion(10, TimeUnit.SECONDS));
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"results\":[{\"grouping\":\"io.dfox.junit.http.examples.ExampleTest\"," 
+                     + "\"name\":\"successfulTest\",\"type\":\"success\"}],\"successful\":true}", 
+                     response.getOutputStreamContent());
+    }
+    
+    @Test
+    public void asyncPostIsRejectedWhenQueueIsFull() throws Exception {
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder()
+            .asyncEnabled(true)
+            .asyncThreads(1)
+            .asyncQueueSize(1)
+            .build());
+        ExampleBlockingTest.reset();
+        
+        MockAsyncHttpServletRequest running = postAsync(ExampleBlockingTest.class, 
+                                                        new MockHttpServletResponse());
+        assertTrue(ExampleBlockingTest.awaitStarted(10, TimeUnit.SECONDS));
+        MockAsyncHttpServletRequest queued = postAsync(ExampleTest.class, 
+                                                       new MockHttpServletResponse());
+        MockAsyncHttpServletRequest rejected = postAsync(ExampleTest.class, response);
+        
+        assertTrue(rejected.isCompleted());
+        assertEquals(503, response.getStatusCode());
+        assertFalse(queued.isCompleted());
+        
+        ExampleBlockingTest.release();
+        assertTrue(running.awaitCompletion(10, TimeUnit.SECONDS));
+        assertTrue(queued.awaitCompletion(10, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    public void asyncPostWhichTimesOutIsCancelled() throws Exception {
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder().asyncEnabled(true).asyncThreads(1).build());
+        ExampleBlockingTest.reset();
+        
+        MockAsyncHttpServletRequest asyncRequest = postAsync(ExampleBlockingTest.class, response);
+        assertTrue(ExampleBlockingTest.awaitStarted(10, TimeUnit.SECONDS));
+        asyncRequest.timeOut();
+        
+        assertTrue(asyncRequest.isCompleted());
+        assertEquals(503, response.getStatusCode());
+        assertTrue(ExampleBlockingTest.awaitStopped(10, TimeUnit.SECONDS));
+    }
+    
+    private MockAsyncHttpServletRequest postAsync(final Class<?> testClass, 
+                                                  final MockHttpServletResponse asyncResponse)
+        throws ServletException, IOException {
+        
+        MockHttpServletRequest testRequest = new MockHttpServletRequest();
+        testRequest.setContextPath("");
+        testRequest.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX + "/" + testClass.getName());
+        MockAsyncHttpServletRequest asyncRequest = new MockAsyncHttpServletRequest(testRequest);
+        servlet.doPost(asyncRequest, asyncResponse);
+        return asyncRequest;
+    }
+    
+    @Test
+    public void postStreamsResultsAsNdjson() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest");
+        request.setHeader("Accept", "application/x-ndjson");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeader("Content-Type"));
+        String[] lines = response.getOutputStreamContent().split("\n");
+        assertEquals(7, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"grouping\":\"io.dfox.junit.http.examples.ExampleTest\""));
+        }
+    }
+    
+    @Test
+    public void postStreamsResultsAsEventStream() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        request.setHeader("Accept", "text/event-stream");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("text/event-stream", response.getHeader("Content-Type"));
+        assertEquals("event: result\ndata: {\"grouping\":\"io.dfox.junit.http.examples.ExampleTest\"," 
+                     + "\"name\":\"successfulTest\",\"type\":\"success\"}\n\n"
+                     + "event: end\ndata: {\"successful\":true}\n\n",
+                     response.getOutputStreamContent());
+    }
+    
+    @Test
+    public void postStreamNonExistentTestReturnsNotFound() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX + "/doesnt-exist");
+        request.setHeader("Accept", "application/x-ndjson");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(404, response.getStatusCode());
+    }
+    
+    @Test
+    public void postBatchRunsAllPaths() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.BATCH_PREFIX);
+        request.setupAddParameter(JUnitHttpServlet.PARALLEL_PARAMETER, "true");
+        request.setBodyContent("[\"tests/io.dfox.junit.http.examples.ExampleTest/successfulTest\"," 
+                               + "\"tests/doesnt-exist\"]");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"results\":[{\"path\":\"tests/io.dfox.junit.http.examples.ExampleTest/successfulTest\","
+                     + "\"status\":200,\"summary\":{\"results\":[{\"grouping\":"
+                     + "\"io.dfox.junit.http.examples.ExampleTest\",\"name\":\"successfulTest\","
+                     + "\"type\":\"success\"}],\"successful\":true},\"error\":null,\"successful\":true},"
+                     + "{\"path\":\"tests/doesnt-exist\",\"status\":404,\"summary\":null,"
+                     + "\"error\":\"Not found: tests/doesnt-exist\",\"successful\":false}],"
+                     + "\"successful\":false}",
+                     response.getOutputStreamContent());
+    }
+    
+    @Test
+    public void postInvalidBatchReturnsBadRequest() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.BATCH_PREFIX);
+        request.setBodyContent("{\"not\": \"an array\"}");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(400, response.getStatusCode());
+    }
+    
+    private String decode(final MockHttpServletResponse response, final boolean gzip) 
+        throws IOException {
+        
+        byte[] bytes = ((MockServletOutputStream) response.getOutputStream()).getBinaryContent();
+        InputStream encoded = new InflaterInputStream(new ByteArrayInputStream(bytes));
+        if (gzip) {
+            encoded = new GZIPInputStream(new ByteArrayInputStream(bytes));
+        }
+        
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        try (InputStream stream = encoded) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                decoded.write(buffer, 0, read);
+            }
+        }
+        return new String(decoded.toByteArray(), StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    public void getReturnsGzippedFixture() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.DATA_PREFIX + "/notes.json");
+        request.setHeader("Accept-Encoding", "deflate;q=0.5, gzip");
+        
+        servlet.doGet(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("{\"name\":\"my-note\",\"contents\":\"This is my note\"}", 
+                     decode(response, true));
+    }
+    
+    @Test
+    public void postReturnsDeflatedResults() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        request.setHeader("Accept-Encoding", "deflate, gzip;q=0");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        assertEquals("{\"results\":[{\"grouping\":\"io.dfox.junit.http.examples.ExampleTest\"," 
+                     + "\"name\":\"successfulTest\",\"type\":\"success\"}],\"successful\":true}", 
+                     decode(response, false));
+    }
+    
+    @Test
+    public void postReturnsSmileResults() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        request.setHeader("Accept", "application/json;q=0.5, application/x-jackson-smile");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/x-jackson-smile", response.getHeader("Content-Type"));
+        JsonNode summary = TestUtils.SMILE_MAPPER.readTree(
+            ((MockServletOutputStream) response.getOutputStream()).getBinaryContent());
+        assertEquals("{\"results\":[{\"grouping\":\"io.dfox.junit.http.examples.ExampleTest\"," 
+                     + "\"name\":\"successfulTest\",\"type\":\"success\"}],\"successful\":true}", 
+                     TestUtils.JSON_MAPPER.writeValueAsString(summary));
+    }
+    
+    @Test
+    public void getReturnsCborFixture() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.DATA_PREFIX + "/notes.json");
+        request.setHeader("Accept", "application/cbor");
+        
+        servlet.doGet(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/cbor", response.getHeader("Content-Type"));
+        JsonNode data = TestUtils.CBOR_MAPPER.readTree(
+            ((MockServletOutputStream) response.getOutputStream()).getBinaryContent());
+        assertEquals("{\"name\":\"my-note\",\"contents\":\"This is my note\"}", 
+                     TestUtils.JSON_MAPPER.writeValueAsString(data));
+    }
+    
+    @Test
+    public void getWithMatchingETagReturnsNotModified() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.DATA_PREFIX + "/notes.json");
+        
+        servlet.doGet(request, response);
+        
+        String etag = response.getHeader("ETag");
+        assertNotNull(etag);
+        assertEquals("public, max-age=86400", response.getHeader("Cache-Control"));
+        
+        MockHttpServletResponse revalidated = new MockHttpServletResponse();
+        request.setHeader("If-None-Match", "\"other\", W/" + etag);
+        
+        servlet.doGet(request, revalidated);
+        
+        assertEquals(304, revalidated.getStatusCode());
+        assertEquals(etag, revalidated.getHeader("ETag"));
+        assertEquals("", revalidated.getOutputStreamContent());
+    }
+    
+    @Test
+    public void getWithStaleETagReturnsDocument() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.DATA_PREFIX + "/notes.json");
+        request.setHeader("If-None-Match", "\"stale\"");
+        
+        servlet.doGet(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"name\":\"my-note\",\"contents\":\"This is my note\"}", 
+                     response.getOutputStreamContent());
+    }
+    
+    @Test
+    public void matchesETag() {
+        assertFalse(JUnitHttpServlet.matchesETag(null, "\"a\""));
+        assertFalse(JUnitHttpServlet.matchesETag("\"b\"", "\"a\""));
+        assertTrue(JUnitHttpServlet.matchesETag("\"b\", \"a\"", "\"a\""));
+        assertTrue(JUnitHttpServlet.matchesETag("W/\"a\"", "\"a\""));
+        assertTrue(JUnitHttpServlet.matchesETag("*", "\"a\""));
+    }
+    
+    @Test
+    public void postWithTimeoutReturnsTimeoutResult() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleSlowTest/slowTest");
+        request.setupAddParameter(JUnitHttpServlet.TIMEOUT_PARAMETER, "100");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        JsonNode summary = TestUtils.JSON_MAPPER.readTree(response.getOutputStreamContent());
+        assertFalse(summary.get("successful").asBoolean());
+        assertEquals("timeout", summary.get("results").get(0).get("type").asText());
+    }
+    
+    @Test
+    public void postWithoutTimeoutRunsTestUnderMaximum() throws ServletException, IOException {
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder().timeoutMaxMillis(100).build());
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleSlowTest/slowTest");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        JsonNode summary = TestUtils.JSON_MAPPER.readTree(response.getOutputStreamContent());
+        assertEquals("timeout", summary.get("results").get(0).get("type").asText());
+    }
+    
+    @Test
+    public void postWithZeroTimeoutRunsTestUnderMaximum() throws ServletException, IOException {
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder().timeoutMaxMillis(100).build());
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleSlowTest/slowTest");
+        request.setupAddParameter(JUnitHttpServlet.TIMEOUT_PARAMETER, "0");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        JsonNode summary = TestUtils.JSON_MAPPER.readTree(response.getOutputStreamContent());
+        assertEquals("timeout", summary.get("results").get(0).get("type").asText());
+    }
+    
+    @Test
+    public void postWithoutTimeoutRunsTestWithoutLimitWhenUnlimited() 
+        throws ServletException, IOException {
+        
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder().timeoutMaxMillis(Configuration.UNLIMITED).build());
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleThreadTest");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertEquals(Thread.currentThread(), ExampleThreadTest.getLastThread());
+    }
+    
+    @Test
+    public void postWithTimeoutRunsTestUnderTimeLimit() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleThreadTest");
+        request.setupAddParameter(JUnitHttpServlet.TIMEOUT_PARAMETER, "10000");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        assertNotEquals(Thread.currentThread(), ExampleThreadTest.getLastThread());
+    }
+    
+    @Test
+    public void postWithInvalidTimeoutReturnsBadRequest() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        request.setupAddParameter(JUnitHttpServlet.TEST_TIMEOUT_PARAMETER, "-1");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(400, response.getStatusCode());
+    }
+    
+    @Test
+    public void getReturnsAdmissionStats() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        servlet.doPost(request, response);
+        
+        MockHttpServletResponse statsResponse = new MockHttpServletResponse();
+        request.setRequestURI("/" + JUnitHttpServlet.STATS_PREFIX + "/" 
+                              + JUnitHttpServlet.ADMISSION_STATS);
+        servlet.doGet(request, statsResponse);
+        
+        assertEquals(200, statsResponse.getStatusCode());
+        JsonNode stats = TestUtils.JSON_MAPPER.readTree(statsResponse.getOutputStreamContent());
+        assertEquals(1, stats.get("admitted").asInt());
+        assertEquals(0, stats.get("running").asInt());
+        assertEquals(0, stats.get("rejected").asInt());
+    }
+    
+    @Test
+    public void postStopsAtFirstFailureWithFailFast() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleFailFastTest");
+        request.setupAddParameter(JUnitHttpServlet.FAIL_FAST_PARAMETER, "true");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        JsonNode results = TestUtils.JSON_MAPPER.readTree(response.getOutputStreamContent())
+            .get("results");
+        assertEquals(3, results.size());
+        assertEquals("failure", results.get(0).get("type").asText());
+        assertEquals("notrun", results.get(1).get("type").asText());
+        assertEquals("notrun", results.get(2).get("type").asText());
+    }
+    
+    @Test
+    public void getDiscoversTestsOfShard() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleCategorizedTest");
+        request.setupAddParameter(JUnitHttpServlet.SHARD_PARAMETER, "1/2");
+        
+        servlet.doGet(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        JsonNode discovery = TestUtils.JSON_MAPPER.readTree(response.getOutputStreamContent());
+        assertEquals(4, discovery.get("tests").size());
+        List<String> selected = new ArrayList<>();
+        discovery.get("selected").forEach(test -> selected.add(test.asText()));
+        Collections.sort(selected);
+        assertEquals(Arrays.asList(
+            "io.dfox.junit.http.examples.ExampleCategorizedTest/saveSmokeTest",
+            "io.dfox.junit.http.examples.ExampleCategorizedTest/uncategorizedTest"), selected);
+    }
+    
+    @Test
+    public void postRejectsInvalidShard() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleCategorizedTest");
+        request.setupAddParameter(JUnitHttpServlet.SHARD_PARAMETER, "3/2");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(400, response.getStatusCode());
+    }
+    
+    @Test
+    public void postRunsSelectedTests() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleCategorizedTest");
+        request.setupAddParameter(JUnitHttpServlet.CATEGORY_PARAMETER, "Smoke, Thorough");
+        request.setupAddParameter(JUnitHttpServlet.NAME_PARAMETER, "save*");
+        
+        servlet.doPost(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+        JsonNode results = TestUtils.JSON_MAPPER.readTree(response.getOutputStreamContent())
+            .get("results");
+        assertEquals(2, results.size());
+        for (JsonNode result : results) {
+            assertTrue(result.get("name").asText().startsWith("save"));
+        }
+    }
+    
+    @Test
+    public void getReturnsRunnerCacheStats() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.TESTS_PREFIX 
+                              + "/io.dfox.junit.http.examples.ExampleTest/successfulTest");
+        servlet.doPost(request, response);
+        servlet.doPost(request, new MockHttpServletResponse());
+        
+        MockHttpServletResponse statsResponse = new MockHttpServletResponse();
+        request.setRequestURI("/" + JUnitHttpServlet.STATS_PREFIX + "/" 
+                              + JUnitHttpServlet.RUNNER_STATS);
+        servlet.doGet(request, statsResponse);
+        
+        assertEquals(200, statsResponse.getStatusCode());
+        JsonNode stats = TestUtils.JSON_MAPPER.readTree(statsResponse.getOutputStreamContent());
+        assertEquals(1, stats.get("size").asInt());
+        assertEquals(1, stats.get("misses").asInt());
+        assertEquals(1, stats.get("hits").asInt());
+        assertEquals(0, stats.get("evictions").asInt());
+    }
+    
+    @Test
+    public void getReadyReturnsUnavailableDuringWarmUp() throws Exception {
+        servlet.destroy();
+        servlet = new JUnitHttpServlet();
+        servlet.init(Configuration.builder()
+            .warmupPackages(Arrays.asList("io.dfox.junit.http.examples.slowwarmup"))
+            .build());
+        assertTrue(ExampleSlowWarmupTest.STARTED.await(10, TimeUnit.SECONDS));
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.READY_PREFIX);
+        
+        servlet.doGet(request, response);
+        
+        assertEquals(503, response.getStatusCode());
+        
+        ExampleSlowWarmupTest.RELEASE.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        MockHttpServletResponse readyResponse;
+        do {
+            readyResponse = new MockHttpServletResponse();
+            servlet.doGet(request, readyResponse);
+        } while (readyResponse.getStatusCode() != 200 && System.nanoTime() < deadline);
+        assertEquals(200, readyResponse.getStatusCode());
+    }
+    
+    @Test
+    public void getReadyReturnsOkAfterWarmUp() throws ServletException, IOException {
+        request.setContextPath("");
+        request.setRequestURI("/" + JUnitHttpServlet.READY_PREFIX);
+        
+        servlet.doGet(request, response);
+        
+        assertEquals(200, response.getStatusCode());
+    }
 }
-
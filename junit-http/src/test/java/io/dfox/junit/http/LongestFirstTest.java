@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LongestFirstTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(1);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private List<String> run(final TimingStore timings, final List<String> items, 
+                             final List<String> started) {
+        List<String> results = new ArrayList<>();
+        LongestFirst.<String, String>submit(pool, timings, items, 
+                                            item -> Optional.of(new Path(item)), 
+                                            item -> {
+                                                started.add(item);
+                                                return item.toUpperCase();
+                                            })
+            .joinInOrder(results::add);
+        return results;
+    }
+
+    @Test
+    public void startsLongestFirstAndReturnsResultsInOrder() {
+        TimingStore timings = new TimingStore();
+        timings.record(new Path("short"), 10);
+        timings.record(new Path("long"), 1000);
+        timings.record(new Path("medium"), 100);
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+        List<String> results = run(timings, Arrays.asList("short", "new", "long", "medium"), 
+                                   started);
+
+        assertEquals(Arrays.asList("new", "long", "medium", "short"), started);
+        assertEquals(Arrays.asList("SHORT", "NEW", "LONG", "MEDIUM"), results);
+    }
+
+    @Test
+    public void keepsOrderWithoutTimings() {
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        run(new TimingStore(), Arrays.asList("b", "a", "c"), started);
+        assertEquals(Arrays.asList("b", "a", "c"), started);
+    }
+
+    @Test
+    public void rethrowsFailures() {
+        try {
+            LongestFirst.<String, String>submit(pool, new TimingStore(), Arrays.asList("a"),
+                                                item -> Optional.empty(),
+                                                item -> {
+                                                    throw new IllegalStateException(item);
+                                                })
+                .joinInOrder(result -> { });
+            fail("Expected the failure to be rethrown");
+        }
+        catch (IllegalStateException e) {
+            assertEquals("a", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import static org.junit.Assert.assertEquals;
+
+public class MethodInvokerTest {
+
+    private static final AtomicInteger STATIC_CALLS = new AtomicInteger();
+
+    public static class Target {
+
+        private int calls = 0;
+
+        public static void staticMethod() {
+            STATIC_CALLS.incrementAndGet();
+        }
+
+        public void instanceMethod() {
+            calls++;
+        }
+
+        public String methodWithResult() {
+            calls++;
+            return "result";
+        }
+
+        public void failingMethod() throws Exception {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    private MethodInvoker invoker(final String name) throws Exception {
+        return MethodInvoker.of(new FrameworkMethod(Target.class.getMethod(name)));
+    }
+
+    @Test
+    public void invokesInstanceMethods() throws Throwable {
+        Target target = new Target();
+        invoker("instanceMethod").invoke(target);
+        invoker("methodWithResult").invoke(target);
+        assertEquals(2, target.calls);
+    }
+
+    @Test
+    public void invokesStaticMethods() throws Throwable {
+        int calls = STATIC_CALLS.get();
+        invoker("staticMethod").invoke(null);
+        assertEquals(calls + 1, STATIC_CALLS.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void throwsExceptionsUnwrapped() throws Throwable {
+        invoker("failingMethod").invoke(new Target());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * A request wrapper which supports being put into asynchronous mode, for use with mock requests
+ * which do not.
+ */
+public class MockAsyncHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final List<AsyncListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean asyncStarted = false;
+    private volatile Context context;
+
+    public MockAsyncHttpServletRequest(final HttpServletRequest request) {
+        super(request);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AsyncContext startAsync(final ServletRequest request, final ServletResponse response) {
+        asyncStarted = true;
+        context = new Context(request, response);
+        return context;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncStarted;
+    }
+
+    public boolean awaitCompletion(final long timeout, final TimeUnit unit)
+        throws InterruptedException {
+
+        return completed.await(timeout, unit);
+    }
+
+    public boolean isCompleted() {
+        return completed.getCount() == 0;
+    }
+
+    public void timeOut() throws IOException {
+        for (AsyncListener listener : listeners) {
+            listener.onTimeout(new AsyncEvent(context));
+        }
+    }
+
+    private class Context implements AsyncContext {
+
+        private final ServletRequest request;
+        private final ServletResponse response;
+        private long timeout;
+
+        Context(final ServletRequest request, final ServletResponse response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return true;
+        }
+
+        @Override
+        public void dispatch() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispatch(final String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void dispatch(final ServletContext context, final String path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void complete() {
+            for (AsyncListener listener : listeners) {
+                try {
+                    listener.onComplete(new AsyncEvent(this));
+                }
+                catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            completed.countDown();
+        }
+
+        @Override
+        public void start(final Runnable run) {
+            new Thread(run).start();
+        }
+
+        @Override
+        public void addListener(final AsyncListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void addListener(final AsyncListener listener, final ServletRequest servletRequest,
+                                final ServletResponse servletResponse) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(final Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setTimeout(final long timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public long getTimeout() {
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.Success;
+import io.dfox.junit.http.api.Summary;
+import org.junit.Test;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+
+    private static final Path CLASS_PATH = new Path("com.example.Tests");
+    private static final RunOptions OPTIONS = RunOptions.builder().maxAgeSeconds(60).build();
+
+    private Summary summaryOf(final String... names) {
+        final Summary.Builder builder = Summary.builder();
+        for (String name : names) {
+            builder.addResult(new Success(CLASS_PATH.getGrouping(), name));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void cachesCompleteRun() {
+        final ResultCache cache = new ResultCache(Configuration.defaults());
+        cache.put(CLASS_PATH, OPTIONS, RunOptions.NO_MAX_AGE, 2, summaryOf("first", "second"));
+
+        assertTrue(cache.get(CLASS_PATH, OPTIONS).get().isCached());
+    }
+
+    @Test
+    public void doesNotCacheRunCutShortByTimeout() {
+        final ResultCache cache = new ResultCache(Configuration.defaults());
+        // The timeout expired after the first test, so the second never reported a result
+        cache.put(CLASS_PATH, OPTIONS, RunOptions.NO_MAX_AGE, 2, summaryOf("first"));
+
+        assertFalse(cache.get(CLASS_PATH, OPTIONS).isPresent());
+    }
+}
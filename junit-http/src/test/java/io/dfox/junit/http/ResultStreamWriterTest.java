@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.ResultStreamWriter.Format;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class ResultStreamWriterTest {
+    
+    @Test
+    public void choosesFormatFromAccept() {
+        assertEquals(Optional.empty(), Format.fromAccept(null));
+        assertEquals(Optional.empty(), Format.fromAccept("application/json"));
+        assertEquals(Optional.of(Format.NDJSON), Format.fromAccept("application/x-ndjson"));
+        assertEquals(Optional.of(Format.EVENT_STREAM), 
+                     Format.fromAccept("application/json, Text/Event-Stream"));
+        assertEquals(Optional.of(Format.EVENT_STREAM), 
+                     Format.fromAccept("application/x-ndjson;q=0.5, text/event-stream"));
+        assertEquals(Optional.of(Format.EVENT_STREAM), 
+                     Format.fromAccept("text/event-stream, application/x-ndjson"));
+    }
+    
+    @Test
+    public void ignoresFormatsWithZeroQuality() {
+        assertEquals(Optional.empty(), Format.fromAccept("application/x-ndjson;q=0"));
+        assertEquals(Optional.of(Format.EVENT_STREAM), 
+                     Format.fromAccept("application/x-ndjson; q=0, text/event-stream;q=0.1"));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RouteTest {
+    
+    private void assertRoute(final String uri, final int start, final String prefix, 
+                             final String path) {
+        Route route = Route.parse(uri, start);
+        assertEquals(prefix, route.getPrefix());
+        assertEquals(path, route.getPath());
+        assertEquals(!path.isEmpty(), route.hasPath());
+    }
+    
+    @Test
+    public void parsesPrefixAndPath() {
+        assertRoute("/", 1, "", "");
+        assertRoute("/batch", 1, "batch", "");
+        assertRoute("/batch/", 1, "batch", "");
+        assertRoute("/tests/foo", 1, "tests", "foo");
+        assertRoute("/tests/foo/bar/", 1, "tests", "foo/bar");
+        assertRoute("/app/data/notes/note.json", 5, "data", "notes/note.json");
+    }
+    
+    @Test
+    public void toleratesShortUris() {
+        Route route = Route.parse("/app", 5);
+        assertFalse(route.hasPath());
+        assertEquals("", route.getPrefix());
+        assertTrue(Route.parse("/app/tests/foo", 5).hasPath());
+    }
+}
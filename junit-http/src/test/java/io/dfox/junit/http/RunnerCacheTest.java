@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import io.dfox.junit.http.api.RunnerCacheStats;
+import io.dfox.junit.http.examples.ExampleCountingTest;
+import io.dfox.junit.http.examples.ExampleTest;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RunnerCacheTest {
+
+    private static final Path COUNTING_PATH = 
+        new Path(ExampleCountingTest.class.getName(), "someTest");
+    private static final Path OTHER_PATH = new Path(ExampleTest.class.getName(), "someTest");
+
+    private RunnerCache createCache(final int maxSize, final long maxIdleMillis) {
+        return new RunnerCache(Configuration.builder()
+            .runnersMaxSize(maxSize)
+            .runnersMaxIdleMillis(maxIdleMillis)
+            .build(), ForkJoinPool.commonPool());
+    }
+
+    private JUnitHttpRunner use(final RunnerCache cache, final Path path) {
+        try (RunnerCache.Lease lease = cache.acquire(path)) {
+            return lease.getRunner();
+        }
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        final RunnerCache cache = createCache(Configuration.UNLIMITED, Configuration.UNLIMITED);
+        final JUnitHttpRunner runner = use(cache, COUNTING_PATH);
+        assertSame(runner, use(cache, COUNTING_PATH));
+        use(cache, OTHER_PATH);
+
+        final RunnerCacheStats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0, stats.getEvictions());
+        cache.destroy();
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedRunnerWhenFull() {
+        final RunnerCache cache = createCache(1, Configuration.UNLIMITED);
+        final int setUps = ExampleCountingTest.SET_UPS.get();
+        final int tearDowns = ExampleCountingTest.TEAR_DOWNS.get();
+
+        final JUnitHttpRunner runner = use(cache, COUNTING_PATH);
+        use(cache, OTHER_PATH);
+        // Closing a lease does not evict; that is left to the evictor
+        assertEquals(2, cache.getStats().getSize());
+        assertEquals(tearDowns, ExampleCountingTest.TEAR_DOWNS.get());
+
+        cache.evictExpired();
+        assertEquals(tearDowns + 1, ExampleCountingTest.TEAR_DOWNS.get());
+        assertEquals(1, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getEvictions());
+
+        assertNotSame(runner, use(cache, COUNTING_PATH));
+        assertEquals(setUps + 2, ExampleCountingTest.SET_UPS.get());
+        cache.destroy();
+    }
+
+    @Test
+    public void evictsIdleRunnersOnlyOnceReleased() throws Exception {
+        final RunnerCache cache = createCache(Configuration.UNLIMITED, 1);
+        final int tearDowns = ExampleCountingTest.TEAR_DOWNS.get();
+
+        try (RunnerCache.Lease lease = cache.acquire(COUNTING_PATH)) {
+            assertNotNull(lease.getRunner());
+            Thread.sleep(10);
+            cache.evictExpired();
+            assertEquals(tearDowns, ExampleCountingTest.TEAR_DOWNS.get());
+            assertEquals(1, cache.getStats().getSize());
+        }
+
+        Thread.sleep(10);
+        cache.evictExpired();
+        assertEquals(tearDowns + 1, ExampleCountingTest.TEAR_DOWNS.get());
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http;
+
+import io.dfox.junit.http.api.Path;
+import java.io.File;
+import java.io.IOException;
+import java.util.OptionalLong;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TimingStoreTest {
+
+    private static final Path TEST_PATH = new Path("com.example.SomeTest", "someTest");
+    private static final Path CLASS_PATH = new Path("com.example.SomeTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void averagesRecordedTimings() {
+        TimingStore timings = new TimingStore();
+        assertFalse(timings.estimateNanos(TEST_PATH).isPresent());
+
+        timings.record(TEST_PATH, 1000);
+        assertEquals(OptionalLong.of(1000), timings.estimateNanos(TEST_PATH));
+        timings.record(TEST_PATH, 2000);
+        assertEquals(OptionalLong.of(1250), timings.estimateNanos(TEST_PATH));
+    }
+
+    @Test
+    public void savesAndLoadsTimings() throws IOException {
+        File file = new File(folder.getRoot(), "timings.json");
+        TimingStore timings = new TimingStore();
+        timings.record(TEST_PATH, 1000);
+        timings.record(CLASS_PATH, 5000);
+        timings.save(file);
+
+        TimingStore loaded = new TimingStore();
+        loaded.load(file);
+        assertEquals(2, loaded.size());
+        assertEquals(OptionalLong.of(1000), loaded.estimateNanos(TEST_PATH));
+        assertEquals(OptionalLong.of(5000), loaded.estimateNanos(CLASS_PATH));
+    }
+
+    @Test
+    public void loadingMissingFileLoadsNothing() throws IOException {
+        TimingStore timings = new TimingStore();
+        timings.load(new File(folder.getRoot(), "missing.json"));
+        assertEquals(0, timings.size());
+    }
+}
@@ -50,4 +50,24 @@ public class PathTest {
         assertNotEquals(a.hashCode(), d.hashCode());
         assertNotEquals(a.hashCode(), e.hashCode());
     }
+    
+    @Test
+    public void testPackage() {
+        Path packagePath = new Path("com.example.*");
+        Path classPath = new Path("com.example.SomeTest");
+        
+        assertTrue(packagePath.isPackage());
+        assertEquals("com.example", packagePath.getPackageName());
+        assertFalse(classPath.isPackage());
+        assertEquals("com.example.SomeTest", classPath.getPackageName());
+    }
+    
+    @Test
+    public void testToString() {
+        assertEquals("com.example.SomeTest", new Path("com.example.SomeTest").toString());
+        assertEquals("com.example.SomeTest/someTest", 
+                     new Path("com.example.SomeTest", "someTest").toString());
+        assertEquals(new Path("com.example.SomeTest", "someTest"), 
+                     Path.parse("com.example.SomeTest/someTest").get());
+    }
 }
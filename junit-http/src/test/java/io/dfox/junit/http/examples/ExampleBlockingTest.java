@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Example test which blocks until it is released, to demonstrate requests which are still 
+ * running when others arrive or when they time out.
+ */
+public class ExampleBlockingTest {
+    
+    private static final long BLOCKED_SECONDS = 60L;
+    private static volatile CountDownLatch started = new CountDownLatch(1);
+    private static volatile CountDownLatch released = new CountDownLatch(1);
+    private static volatile CountDownLatch stopped = new CountDownLatch(1);
+    
+    /**
+     * Prepare for another run of the test.
+     */
+    public static void reset() {
+        started = new CountDownLatch(1);
+        released = new CountDownLatch(1);
+        stopped = new CountDownLatch(1);
+    }
+    
+    /**
+     * Wait for the test to start.
+     *
+     * @param timeout The longest time to wait
+     * @param unit The unit of the timeout
+     * @return True if the test started
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    public static boolean awaitStarted(final long timeout, final TimeUnit unit) 
+        throws InterruptedException {
+        
+        return started.await(timeout, unit);
+    }
+    
+    /**
+     * Wait for the test to stop, whether it was released or interrupted.
+     *
+     * @param timeout The longest time to wait
+     * @param unit The unit of the timeout
+     * @return True if the test stopped
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    public static boolean awaitStopped(final long timeout, final TimeUnit unit) 
+        throws InterruptedException {
+        
+        return stopped.await(timeout, unit);
+    }
+    
+    /**
+     * Let the test finish.
+     */
+    public static void release() {
+        released.countDown();
+    }
+    
+    @Test
+    public void blockedTest() throws InterruptedException {
+        started.countDown();
+        try {
+            released.await(BLOCKED_SECONDS, TimeUnit.SECONDS);
+        }
+        finally {
+            stopped.countDown();
+        }
+    }
+}
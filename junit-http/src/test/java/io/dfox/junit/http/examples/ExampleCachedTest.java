@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import io.dfox.junit.http.CacheResult;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.fail;
+
+/**
+ * Example tests which count how many times they have run, to demonstrate cached results.
+ */
+public class ExampleCachedTest {
+    
+    public static final AtomicInteger RUNS = new AtomicInteger();
+    
+    @Test
+    @CacheResult(maxAgeSeconds = 60)
+    public void cachedTest() {
+        RUNS.incrementAndGet();
+    }
+    
+    @Test
+    @CacheResult(maxAgeSeconds = 60)
+    public void failingCachedTest() {
+        RUNS.incrementAndGet();
+        fail("failed");
+    }
+    
+    @Test
+    public void uncachedTest() {
+        RUNS.incrementAndGet();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import io.dfox.junit.http.Parallel;
+import static org.junit.Assert.fail;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Example tests which run in parallel, one of which fails while the other is still running, to 
+ * demonstrate cancelling the tests of a fail-fast run.
+ */
+@Parallel
+public class ExampleCancelledTest {
+    
+    public static final int TESTS = 2;
+    private static final long TIMEOUT_SECONDS = 10L;
+    private static final long BLOCKED_SECONDS = 60L;
+    private static volatile CountDownLatch started = new CountDownLatch(1);
+    private static volatile CountDownLatch stopped = new CountDownLatch(1);
+    
+    /**
+     * Prepare for another run of the tests.
+     */
+    public static void reset() {
+        started = new CountDownLatch(1);
+        stopped = new CountDownLatch(1);
+    }
+    
+    /**
+     * @return True if the blocked test has stopped running
+     */
+    public static boolean isBlockedTestStopped() {
+        return stopped.getCount() == 0;
+    }
+    
+    @Test
+    public void failingTest() throws Exception {
+        started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        fail("The test failed while another was running");
+    }
+    
+    @Test
+    public void blockedTest() throws Exception {
+        started.countDown();
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(BLOCKED_SECONDS));
+        }
+        finally {
+            stopped.countDown();
+        }
+    }
+}
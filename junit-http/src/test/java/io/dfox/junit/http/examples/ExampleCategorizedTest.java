@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Example tests in categories, to demonstrate selecting tests.
+ */
+public class ExampleCategorizedTest {
+    
+    /**
+     * The category of quick checks of the most important features.
+     */
+    public interface Smoke { }
+    
+    /**
+     * A subcategory of smoke tests which check saving.
+     */
+    public interface SaveSmoke extends Smoke { }
+    
+    /**
+     * The category of slower, more thorough tests.
+     */
+    public interface Thorough { }
+    
+    @Test
+    @Category(Smoke.class)
+    public void loadSmokeTest() {
+        assertTrue(true);
+    }
+    
+    @Test
+    @Category(SaveSmoke.class)
+    public void saveSmokeTest() {
+        assertTrue(true);
+    }
+    
+    @Test
+    @Category(Thorough.class)
+    public void saveThoroughTest() {
+        assertTrue(true);
+    }
+    
+    @Test
+    public void uncategorizedTest() {
+        assertTrue(true);
+    }
+}
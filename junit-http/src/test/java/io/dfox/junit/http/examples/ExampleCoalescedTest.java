@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import io.dfox.junit.http.Coalesce;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Example tests which wait to be released and count how many times they have run, to 
+ * demonstrate coalesced runs.
+ */
+@Coalesce
+public class ExampleCoalescedTest {
+    
+    public static final AtomicInteger RUNS = new AtomicInteger();
+    public static final CountDownLatch STARTED = new CountDownLatch(1);
+    public static final CountDownLatch RELEASE = new CountDownLatch(1);
+    private static final long TIMEOUT_SECONDS = 10L;
+    
+    @Test
+    public void sharedTest() throws InterruptedException {
+        RUNS.incrementAndGet();
+        STARTED.countDown();
+        assertTrue(RELEASE.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+}
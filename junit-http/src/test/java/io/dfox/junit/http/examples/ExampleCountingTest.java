@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Example tests which count how many times their class has been set up and torn down, to 
+ * demonstrate runner eviction.
+ */
+public class ExampleCountingTest {
+    
+    public static final AtomicInteger SET_UPS = new AtomicInteger();
+    public static final AtomicInteger TEAR_DOWNS = new AtomicInteger();
+    
+    @BeforeClass
+    public static void setUpClass() {
+        SET_UPS.incrementAndGet();
+    }
+    
+    @AfterClass
+    public static void tearDownClass() {
+        TEAR_DOWNS.incrementAndGet();
+    }
+    
+    @Test
+    public void someTest() {
+        assertTrue(true);
+    }
+}
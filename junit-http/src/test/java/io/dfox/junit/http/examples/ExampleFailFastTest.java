@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import static org.junit.Assert.fail;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Example tests whose first test fails, to demonstrate fail-fast runs.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class ExampleFailFastTest {
+    
+    @Test
+    public void firstTest() {
+        fail("The first test failed");
+    }
+    
+    @Test
+    public void secondTest() {
+    }
+    
+    @Test
+    public void thirdTest() {
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Example tests which record each step of their lifecycle, to demonstrate that tests behave the 
+ * same whether or not their statements are cached.
+ */
+public class ExampleLifecycleTest {
+    
+    public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+    
+    private String state;
+    
+    @Before
+    public void setUp() {
+        assertEquals(null, state);
+        state = "set up";
+        EVENTS.add("before");
+    }
+    
+    @After
+    public void tearDown() {
+        EVENTS.add("after");
+    }
+    
+    @Test
+    public void passingTest() {
+        assertEquals("set up", state);
+        EVENTS.add("passingTest");
+    }
+    
+    @Test
+    public void failingTest() {
+        EVENTS.add("failingTest");
+        fail("failed");
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void expectingTest() {
+        EVENTS.add("expectingTest");
+        throw new IllegalStateException();
+    }
+}
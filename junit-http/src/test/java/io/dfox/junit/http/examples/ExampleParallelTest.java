@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import io.dfox.junit.http.Parallel;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+/**
+ * Example tests which only pass when they are run at the same time, to demonstrate parallel 
+ * tests.
+ */
+@Parallel
+public class ExampleParallelTest {
+    
+    public static final int TESTS = 3;
+    private static final long TIMEOUT_SECONDS = 10L;
+    private static final CyclicBarrier BARRIER = new CyclicBarrier(TESTS);
+    
+    @Test
+    public void firstTest() throws Exception {
+        BARRIER.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void secondTest() throws Exception {
+        BARRIER.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void thirdTest() throws Exception {
+        BARRIER.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
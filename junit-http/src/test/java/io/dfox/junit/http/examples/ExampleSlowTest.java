@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import io.dfox.junit.http.Fixture;
+import org.junit.Test;
+
+/**
+ * Example tests which take much longer than the timeouts they are run with, to demonstrate 
+ * timeouts.
+ */
+public class ExampleSlowTest {
+    
+    public static final long SLOW_MILLIS = 30000L;
+    
+    @Fixture
+    public void slowFixture() throws InterruptedException {
+        Thread.sleep(SLOW_MILLIS);
+    }
+    
+    @Test
+    public void fastTest() {
+        // Finishes well within any timeout
+    }
+    
+    @Test
+    public void slowTest() throws InterruptedException {
+        Thread.sleep(SLOW_MILLIS);
+    }
+}
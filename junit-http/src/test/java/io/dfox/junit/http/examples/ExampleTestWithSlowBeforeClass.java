@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Example tests whose @BeforeClass method blocks until it is released, to demonstrate that slow
+ * initialization of one test class does not hold up others.
+ */
+public class ExampleTestWithSlowBeforeClass {
+    
+    public static final CountDownLatch RELEASE = new CountDownLatch(1);
+    public static final CountDownLatch STARTED = new CountDownLatch(1);
+    public static final AtomicInteger SET_UPS = new AtomicInteger();
+    
+    @BeforeClass
+    public static void setUpClass() throws InterruptedException {
+        SET_UPS.incrementAndGet();
+        STARTED.countDown();
+        RELEASE.await(10, TimeUnit.SECONDS);
+    }
+    
+    @Test
+    public void someTest() {
+        assertTrue(true);
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples;
+
+import org.junit.Test;
+
+/**
+ * Example test which records the thread it runs on, to demonstrate which runs are limited by a 
+ * timeout.
+ */
+public class ExampleThreadTest {
+    
+    private static volatile Thread lastThread;
+    
+    /**
+     * @return The thread the test last ran on, or null if it has not run
+     */
+    public static Thread getLastThread() {
+        return lastThread;
+    }
+    
+    @Test
+    public void recordThreadTest() {
+        lastThread = Thread.currentThread();
+    }
+}
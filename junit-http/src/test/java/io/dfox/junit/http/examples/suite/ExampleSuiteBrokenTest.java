@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples.suite;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Example tests whose class cannot be set up, to demonstrate package paths which include a 
+ * broken class.
+ */
+public class ExampleSuiteBrokenTest {
+    
+    @BeforeClass
+    public static void setUpClass() {
+        throw new IllegalStateException("Cannot set up");
+    }
+    
+    @Test
+    public void someTest() {
+        assertTrue(true);
+    }
+}
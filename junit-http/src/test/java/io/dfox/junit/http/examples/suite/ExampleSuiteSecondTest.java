@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples.suite;
+
+import org.junit.Test;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Example tests which are run along with the rest of their package, to demonstrate package paths.
+ */
+public class ExampleSuiteSecondTest {
+    
+    @Test
+    public void secondTest() {
+        assertTrue(true);
+    }
+    
+    @Test
+    public void failingTest() {
+        assertTrue(false);
+    }
+}
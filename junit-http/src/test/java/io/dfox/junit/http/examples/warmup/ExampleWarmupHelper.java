@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.examples.warmup;
+
+/**
+ * A class with no tests, which warm-up should skip.
+ */
+public class ExampleWarmupHelper {
+    
+    private final String value = "value";
+    
+    public String getValue() {
+        return value;
+    }
+    
+    /**
+     * A nested class, which is not a top level class.
+     */
+    private static class Nested { }
+}
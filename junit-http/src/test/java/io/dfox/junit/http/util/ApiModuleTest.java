@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import io.dfox.junit.http.api.Error;
+import io.dfox.junit.http.api.Failure;
+import io.dfox.junit.http.api.Ignored;
+import io.dfox.junit.http.api.NotRun;
+import io.dfox.junit.http.api.Success;
+import io.dfox.junit.http.api.Timeout;
+import io.dfox.junit.http.api.Summary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApiModuleTest {
+    
+    private static final ObjectMapper BEAN_MAPPER = new ObjectMapper().registerModule(new Jdk8Module());
+    
+    private Summary createSummary() {
+        Summary.Builder builder = Summary.builder();
+        builder.addResult(new Success("com.example.Tests", "passes"));
+        builder.addResult(new Ignored("com.example.Tests", "ignored"));
+        builder.addResult(new Failure("com.example.Tests", "fails", 
+                                      new Error("java.lang.AssertionError", Optional.empty()),
+                                      ImmutableList.of("a.b.C.d(C.java:1)", "e.f.G.h(G.java:2)")));
+        builder.addResult(new Failure("com.example.Tests", "throws", 
+                                      new Error("java.lang.RuntimeException", Optional.of("BOOM \"!\"")),
+                                      ImmutableList.of()));
+        builder.addResult(new Timeout("com.example.Tests", "hangs", 
+                                      new Error("org.junit.runners.model.TestTimedOutException", 
+                                                Optional.of("test timed out after 100 milliseconds")),
+                                      ImmutableList.of("java.lang.Thread.sleep(Native Method)")));
+        return builder.build();
+    }
+    
+    @Test
+    public void serializesSummaryTheSameAsBeanSerialization() throws IOException {
+        Summary summary = createSummary();
+        
+        assertEquals(BEAN_MAPPER.writeValueAsString(summary), 
+                     TestUtils.JSON_MAPPER.writeValueAsString(summary));
+    }
+    
+    @Test
+    public void serializesCachedSummaryTheSameAsBeanSerialization() throws IOException {
+        Summary summary = createSummary().asCached();
+        
+        String json = TestUtils.JSON_MAPPER.writeValueAsString(summary);
+        assertEquals(BEAN_MAPPER.writeValueAsString(summary), json);
+        assertTrue(json.contains("\"cached\":true"));
+    }
+    
+    @Test
+    public void serializesResultsTheSameAsBeanSerialization() throws IOException {
+        for (Object result : createSummary().getResults()) {
+            assertEquals(BEAN_MAPPER.writeValueAsString(result), 
+                         TestUtils.JSON_MAPPER.writeValueAsString(result));
+        }
+    }
+    
+    @Test
+    public void writesUtf8Bytes() throws IOException {
+        Summary.Builder builder = Summary.builder();
+        builder.addResult(new Success("com.example.Tests", "pässes"));
+        Summary summary = builder.build();
+        
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        TestUtils.JSON_MAPPER.writeValue(stream, summary);
+        
+        assertEquals(BEAN_MAPPER.writeValueAsString(summary), 
+                     new String(stream.toByteArray(), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void deserializesWhatItSerializes() throws IOException {
+        Summary.Builder builder = Summary.builder();
+        createSummary().getResults().forEach(builder::addResult);
+        builder.addResult(new NotRun("com.example.Tests", "skipped"));
+        
+        for (Summary summary : Arrays.asList(builder.build(), builder.build().asCached())) {
+            String json = TestUtils.JSON_MAPPER.writeValueAsString(summary);
+            Summary read = TestUtils.JSON_MAPPER.readValue(json, Summary.class);
+            
+            assertEquals(summary.isCached(), read.isCached());
+            assertEquals(json, TestUtils.JSON_MAPPER.writeValueAsString(read));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import io.dfox.junit.http.examples.warmup.ExampleWarmupHelper;
+import io.dfox.junit.http.examples.warmup.ExampleWarmupTest;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import org.junit.Test;
+import org.junit.runners.BlockJUnit4ClassRunner;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClassScannerTest {
+    
+    private final ClassLoader classLoader = getClass().getClassLoader();
+    
+    @Test
+    public void findsClassesInDirectories() throws IOException {
+        assertEquals(ImmutableList.of(ExampleWarmupHelper.class.getName(), 
+                                      ExampleWarmupTest.class.getName()),
+                     ClassScanner.findClasses(classLoader, "io.dfox.junit.http.examples.warmup"));
+    }
+    
+    @Test
+    public void findsClassesInSubpackages() throws IOException {
+        ImmutableList<String> classes = 
+            ClassScanner.findClasses(classLoader, "io.dfox.junit.http.examples");
+        
+        assertTrue(classes.contains(ExampleWarmupTest.class.getName()));
+        assertTrue(classes.contains("io.dfox.junit.http.examples.ExampleTest"));
+    }
+    
+    @Test
+    public void findsClassesInJars() throws IOException {
+        ImmutableList<String> classes = ClassScanner.findClasses(classLoader, "org.junit.runners");
+        
+        assertTrue(classes.contains(BlockJUnit4ClassRunner.class.getName()));
+        assertFalse(classes.stream().anyMatch(name -> name.contains("$")));
+    }
+    
+    @Test
+    public void findsNothingInMissingPackages() throws IOException {
+        assertTrue(ClassScanner.findClasses(classLoader, "does.not.exist").isEmpty());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class ContentEncodingTest {
+    
+    @Test
+    public void choosesEncodingFromAcceptEncoding() {
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.fromAcceptEncoding(null));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.fromAcceptEncoding(""));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.fromAcceptEncoding("br, identity"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromAcceptEncoding("gzip"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromAcceptEncoding("deflate, gzip"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromAcceptEncoding("*"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.fromAcceptEncoding("DEFLATE"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.fromAcceptEncoding("gzip;q=0.2, deflate"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.fromAcceptEncoding("gzip; q=0, deflate; q=0.1"));
+        assertEquals(ContentEncoding.IDENTITY, ContentEncoding.fromAcceptEncoding("gzip;q=0, deflate;q=0"));
+    }
+    
+    @Test
+    public void explicitZeroQualityWinsOverWildcard() {
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.fromAcceptEncoding("gzip;q=0, *"));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.fromAcceptEncoding("*, gzip;q=0"));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromAcceptEncoding("deflate;q=0, *"));
+        assertEquals(ContentEncoding.IDENTITY, 
+                     ContentEncoding.fromAcceptEncoding("gzip;q=0, deflate;q=0, *"));
+        assertEquals(ContentEncoding.DEFLATE, 
+                     ContentEncoding.fromAcceptEncoding("gzip;q=0.5, *;q=0.8"));
+    }
+}
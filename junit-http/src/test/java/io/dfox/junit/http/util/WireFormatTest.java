@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 David Fox. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.dfox.junit.http.util;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class WireFormatTest {
+    
+    @Test
+    public void choosesFormatFromAccept() {
+        assertEquals(WireFormat.JSON, WireFormat.fromAccept(null));
+        assertEquals(WireFormat.JSON, WireFormat.fromAccept("*/*"));
+        assertEquals(WireFormat.JSON, WireFormat.fromAccept("application/json, application/cbor"));
+        assertEquals(WireFormat.SMILE, WireFormat.fromAccept("application/x-jackson-smile"));
+        assertEquals(WireFormat.CBOR, WireFormat.fromAccept("application/json;q=0.5, application/cbor"));
+        assertEquals(WireFormat.JSON, WireFormat.fromAccept("application/cbor;q=0"));
+    }
+    
+    @Test
+    public void choosesFormatFromContentType() {
+        assertEquals(WireFormat.JSON, WireFormat.fromContentType(null));
+        assertEquals(WireFormat.JSON, WireFormat.fromContentType("application/json; charset=UTF-8"));
+        assertEquals(WireFormat.SMILE, WireFormat.fromContentType("application/x-jackson-smile"));
+        assertEquals(WireFormat.CBOR, WireFormat.fromContentType("Application/CBOR"));
+    }
+}